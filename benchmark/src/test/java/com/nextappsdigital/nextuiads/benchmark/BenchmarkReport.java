@@ -0,0 +1,85 @@
+package com.nextappsdigital.nextuiads.benchmark;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes draw-loop results as JSON next to the JMH report, so runs can be compared by scripts.
+ */
+public final class BenchmarkReport {
+
+    private static final String REPORT_DIR_PROPERTY = "nextuiads.benchmark.reportDir";
+
+    /**
+     * The measurements of one draw loop. Durations are in nanoseconds; the remaining values are
+     * averages per frame.
+     */
+    public static final class Result {
+        final String name;
+        final int frames;
+        final long meanNanos;
+        final long p50Nanos;
+        final long p90Nanos;
+        final long p99Nanos;
+        final long maxNanos;
+        final double allocatedBytesPerFrame;
+        final double drawOpsPerFrame;
+        final double saveOpsPerFrame;
+        final double saveLayerOpsPerFrame;
+        final double clipOpsPerFrame;
+
+        Result(String name, int frames, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos,
+               double allocatedBytesPerFrame, double drawOpsPerFrame, double saveOpsPerFrame,
+               double saveLayerOpsPerFrame, double clipOpsPerFrame) {
+            this.name = name;
+            this.frames = frames;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytesPerFrame = allocatedBytesPerFrame;
+            this.drawOpsPerFrame = drawOpsPerFrame;
+            this.saveOpsPerFrame = saveOpsPerFrame;
+            this.saveLayerOpsPerFrame = saveLayerOpsPerFrame;
+            this.clipOpsPerFrame = clipOpsPerFrame;
+        }
+    }
+
+    private BenchmarkReport() {
+    }
+
+    @NonNull
+    public static File getReportDirectory() {
+        File directory = new File(System.getProperty(REPORT_DIR_PROPERTY, "build/reports/benchmarks"));
+        directory.mkdirs();
+        return directory;
+    }
+
+    public static void write(@NonNull String fileName, @NonNull List<Result> results) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"benchmarks\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(String.format(Locale.US,
+                    "    {\"name\": \"%s\", \"frames\": %d, \"meanNanos\": %d, \"p50Nanos\": %d, \"p90Nanos\": %d, "
+                            + "\"p99Nanos\": %d, \"maxNanos\": %d, \"allocatedBytesPerFrame\": %.2f, "
+                            + "\"canvasOpsPerFrame\": {\"draw\": %.2f, \"save\": %.2f, \"saveLayer\": %.2f, \"clip\": %.2f}}",
+                    result.name, result.frames, result.meanNanos, result.p50Nanos, result.p90Nanos,
+                    result.p99Nanos, result.maxNanos, result.allocatedBytesPerFrame,
+                    result.drawOpsPerFrame, result.saveOpsPerFrame, result.saveLayerOpsPerFrame, result.clipOpsPerFrame));
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(getReportDirectory(), fileName)), StandardCharsets.UTF_8)) {
+            writer.write(json.toString());
+        }
+    }
+}
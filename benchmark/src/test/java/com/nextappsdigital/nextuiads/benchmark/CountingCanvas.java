@@ -0,0 +1,913 @@
+package com.nextappsdigital.nextuiads.benchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.BlendMode;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.graphics.RenderNode;
+import android.graphics.Shader;
+import android.graphics.fonts.Font;
+import android.graphics.text.MeasuredText;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A bitmap-backed canvas that counts the operations the library issues on it. Every public draw,
+ * save and clip overload is counted; overloads that delegate to one another count once.
+ */
+public class CountingCanvas extends Canvas {
+
+    public int drawCount;
+    public int saveCount;
+    public int saveLayerCount;
+    public int clipCount;
+    // Nesting of counted calls, so an overload that forwards to another is not counted twice.
+    private int depth;
+
+    public CountingCanvas(@NonNull Bitmap bitmap) {
+        super(bitmap);
+    }
+
+    public int getTotalCount() {
+        return drawCount + saveCount + saveLayerCount + clipCount;
+    }
+
+    public void resetCounts() {
+        drawCount = 0;
+        saveCount = 0;
+        saveLayerCount = 0;
+        clipCount = 0;
+    }
+
+    @Override
+    public int save() {
+        if (depth++ == 0) {
+            saveCount++;
+        }
+        try {
+            return super.save();
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayer(@Nullable RectF bounds, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayer(bounds, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayer(@Nullable RectF bounds, @Nullable Paint paint, int saveFlags) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayer(bounds, paint, saveFlags);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayer(float left, float top, float right, float bottom, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayer(left, top, right, bottom, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayer(float left, float top, float right, float bottom, @Nullable Paint paint, int saveFlags) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayer(left, top, right, bottom, paint, saveFlags);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayerAlpha(@Nullable RectF bounds, int alpha) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayerAlpha(bounds, alpha);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayerAlpha(@Nullable RectF bounds, int alpha, int saveFlags) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayerAlpha(bounds, alpha, saveFlags);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayerAlpha(left, top, right, bottom, alpha);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha, int saveFlags) {
+        if (depth++ == 0) {
+            saveLayerCount++;
+        }
+        try {
+            return super.saveLayerAlpha(left, top, right, bottom, alpha, saveFlags);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipPath(@NonNull Path path) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipPath(path);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipPath(@NonNull Path path, @NonNull Region.Op op) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipPath(path, op);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipOutPath(@NonNull Path path) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipOutPath(path);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(@NonNull RectF rect) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(rect);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(@NonNull Rect rect) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(rect);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(@NonNull RectF rect, @NonNull Region.Op op) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(rect, op);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(@NonNull Rect rect, @NonNull Region.Op op) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(rect, op);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(left, top, right, bottom);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom, @NonNull Region.Op op) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(left, top, right, bottom, op);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipRect(left, top, right, bottom);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipOutRect(@NonNull RectF rect) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipOutRect(rect);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipOutRect(@NonNull Rect rect) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipOutRect(rect);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipOutRect(float left, float top, float right, float bottom) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipOutRect(left, top, right, bottom);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public boolean clipOutRect(int left, int top, int right, int bottom) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            return super.clipOutRect(left, top, right, bottom);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void clipShader(@NonNull Shader shader) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            super.clipShader(shader);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void clipOutShader(@NonNull Shader shader) {
+        if (depth++ == 0) {
+            clipCount++;
+        }
+        try {
+            super.clipOutShader(shader);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawARGB(int a, int r, int g, int b) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawARGB(a, r, g, b);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRGB(int r, int g, int b) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRGB(r, g, b);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawColor(int color) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawColor(color);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawColor(long color) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawColor(color);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawColor(int color, @NonNull PorterDuff.Mode mode) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawColor(color, mode);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawColor(int color, @NonNull BlendMode mode) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawColor(color, mode);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawColor(long color, @NonNull BlendMode mode) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawColor(color, mode);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPaint(@NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPaint(paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPoint(float x, float y, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPoint(x, y, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPoints(@NonNull float[] pts, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPoints(pts, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPoints(@NonNull float[] pts, int offset, int count, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPoints(pts, offset, count, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawLine(startX, startY, stopX, stopY, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawLines(@NonNull float[] pts, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawLines(pts, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawLines(@NonNull float[] pts, int offset, int count, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawLines(pts, offset, count, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRect(@NonNull RectF rect, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRect(rect, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRect(@NonNull Rect r, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRect(r, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRect(left, top, right, bottom, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawOval(@NonNull RectF oval, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawOval(oval, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawOval(float left, float top, float right, float bottom, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawOval(left, top, right, bottom, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawCircle(cx, cy, radius, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawArc(@NonNull RectF oval, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawArc(oval, startAngle, sweepAngle, useCenter, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawArc(left, top, right, bottom, startAngle, sweepAngle, useCenter, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRoundRect(@NonNull RectF rect, float rx, float ry, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRoundRect(rect, rx, ry, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRoundRect(float left, float top, float right, float bottom, float rx, float ry, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRoundRect(left, top, right, bottom, rx, ry, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawDoubleRoundRect(@NonNull RectF outer, float outerRx, float outerRy, @NonNull RectF inner, float innerRx, float innerRy, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawDoubleRoundRect(outer, outerRx, outerRy, inner, innerRx, innerRy, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawDoubleRoundRect(@NonNull RectF outer, @NonNull float[] outerRadii, @NonNull RectF inner, @NonNull float[] innerRadii, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawDoubleRoundRect(outer, outerRadii, inner, innerRadii, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPath(@NonNull Path path, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPath(path, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawBitmap(@NonNull Bitmap bitmap, float left, float top, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawBitmap(bitmap, left, top, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawBitmap(@NonNull Bitmap bitmap, @Nullable Rect src, @NonNull RectF dst, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawBitmap(bitmap, src, dst, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawBitmap(@NonNull Bitmap bitmap, @Nullable Rect src, @NonNull Rect dst, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawBitmap(bitmap, src, dst, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawBitmap(@NonNull Bitmap bitmap, @NonNull Matrix matrix, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawBitmap(bitmap, matrix, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawBitmapMesh(@NonNull Bitmap bitmap, int meshWidth, int meshHeight, @NonNull float[] verts, int vertOffset, @Nullable int[] colors, int colorOffset, @Nullable Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawBitmapMesh(bitmap, meshWidth, meshHeight, verts, vertOffset, colors, colorOffset, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawVertices(@NonNull VertexMode mode, int vertexCount, @NonNull float[] verts, int vertOffset, @Nullable float[] texs, int texOffset, @Nullable int[] colors, int colorOffset, @Nullable short[] indices, int indexOffset, int indexCount, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawVertices(mode, vertexCount, verts, vertOffset, texs, texOffset, colors, colorOffset, indices, indexOffset, indexCount, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPicture(@NonNull Picture picture) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPicture(picture);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPicture(@NonNull Picture picture, @NonNull RectF dst) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPicture(picture, dst);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawPicture(@NonNull Picture picture, @NonNull Rect dst) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawPicture(picture, dst);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull char[] text, int index, int count, float x, float y, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawText(text, index, count, x, y, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull String text, float x, float y, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawText(text, x, y, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull String text, int start, int end, float x, float y, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawText(text, start, end, x, y, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull CharSequence text, int start, int end, float x, float y, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawText(text, start, end, x, y, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawTextOnPath(@NonNull char[] text, int index, int count, @NonNull Path path, float hOffset, float vOffset, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawTextOnPath(text, index, count, path, hOffset, vOffset, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawTextOnPath(@NonNull String text, @NonNull Path path, float hOffset, float vOffset, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawTextOnPath(text, path, hOffset, vOffset, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawTextRun(@NonNull char[] text, int index, int count, int contextIndex, int contextCount, float x, float y, boolean isRtl, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawTextRun(text, index, count, contextIndex, contextCount, x, y, isRtl, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawTextRun(@NonNull CharSequence text, int start, int end, int contextStart, int contextEnd, float x, float y, boolean isRtl, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawTextRun(text, start, end, contextStart, contextEnd, x, y, isRtl, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawTextRun(@NonNull MeasuredText text, int start, int end, int contextStart, int contextEnd, float x, float y, boolean isRtl, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawTextRun(text, start, end, contextStart, contextEnd, x, y, isRtl, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawGlyphs(@NonNull int[] glyphIds, int glyphIdOffset, @NonNull float[] positions, int positionOffset, int glyphCount, @NonNull Font font, @NonNull Paint paint) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawGlyphs(glyphIds, glyphIdOffset, positions, positionOffset, glyphCount, font, paint);
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void drawRenderNode(@NonNull RenderNode renderNode) {
+        if (depth++ == 0) {
+            drawCount++;
+        }
+        try {
+            super.drawRenderNode(renderNode);
+        } finally {
+            depth--;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nextappsdigital.nextuiads.benchmark;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Records per-frame durations, allocated bytes and canvas operations of a draw loop.
+ */
+public final class FrameRecorder {
+
+    /**
+     * One iteration of the loop under measurement.
+     */
+    public interface Frame {
+        void run(int frameIndex);
+    }
+
+    private FrameRecorder() {
+    }
+
+    @NonNull
+    public static BenchmarkReport.Result record(@NonNull String name, int warmUpFrames, int frames, @Nullable CountingCanvas canvas, @NonNull Frame frame) {
+        for (int i = 0; i < warmUpFrames; i++) {
+            frame.run(i);
+        }
+        long[] durations = new long[frames];
+        if (canvas != null) {
+            canvas.resetCounts();
+        }
+        long allocatedBefore = currentThreadAllocatedBytes();
+        for (int i = 0; i < frames; i++) {
+            long start = System.nanoTime();
+            frame.run(warmUpFrames + i);
+            durations[i] = System.nanoTime() - start;
+        }
+        long allocatedBytes = currentThreadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(durations);
+        long total = 0L;
+        for (long duration : durations) {
+            total += duration;
+        }
+        return new BenchmarkReport.Result(name, frames, total / frames,
+                percentile(durations, 0.50d), percentile(durations, 0.90d), percentile(durations, 0.99d), durations[frames - 1],
+                (double) allocatedBytes / frames,
+                canvas != null ? (double) canvas.drawCount / frames : 0.0d,
+                canvas != null ? (double) canvas.saveCount / frames : 0.0d,
+                canvas != null ? (double) canvas.saveLayerCount / frames : 0.0d,
+                canvas != null ? (double) canvas.clipCount / frames : 0.0d);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
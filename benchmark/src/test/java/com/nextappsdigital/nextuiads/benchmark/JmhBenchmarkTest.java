@@ -0,0 +1,34 @@
+package com.nextappsdigital.nextuiads.benchmark;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks of the pure-computation paths and writes {@code jmh.json}.
+ * <p>
+ * The benchmarks run in the Gradle test JVM (no forks), so compare results from the same machine.
+ */
+public class JmhBenchmarkTest {
+
+    @Test
+    public void runJmhBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include("com\\.nextappsdigital\\.nextuiads\\..*Benchmark\\..*")
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.milliseconds(500))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.milliseconds(500))
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(BenchmarkReport.getReportDirectory(), "jmh.json").getAbsolutePath())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.ImageView;
+
+import com.nextappsdigital.nextuiads.benchmark.BenchmarkReport;
+import com.nextappsdigital.nextuiads.benchmark.CountingCanvas;
+import com.nextappsdigital.nextuiads.benchmark.FrameRecorder;
+import com.nextappsdigital.nextuiads.utils.CornersF;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Robolectric-hosted draw loops of the library widgets. Records per-frame time, allocations and
+ * canvas operations into {@code draw-loop.json}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class DrawLoopBenchmarkTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 320;
+    private static final int WARM_UP_FRAMES = 100;
+    private static final int FRAMES = 500;
+    private static final long FRAME_INTERVAL_NANOS = 16666667L;
+
+    private static final List<BenchmarkReport.Result> results = new ArrayList<>();
+
+    @AfterClass
+    public static void writeReport() throws IOException {
+        BenchmarkReport.write("draw-loop.json", results);
+    }
+
+    @Test
+    public void shimmerLayout() {
+        Context context = RuntimeEnvironment.getApplication();
+        UIShimmerLayout layout = new UIShimmerLayout(context);
+        layout.setShimmerColor(Color.WHITE);
+        layout.setShimmerAnimationDuration(1500);
+        layout.setMaskWidth(0.5f);
+        layout.setGradientCenterColorWidth(0.1f);
+        layout.setShimmerAngle(20);
+        for (int i = 0; i < 3; i++) {
+            View row = new View(context);
+            row.setBackgroundColor(Color.GRAY);
+            FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(WIDTH - i * 200, HEIGHT / 5);
+            params.topMargin = i * HEIGHT / 3;
+            layout.addView(row, params);
+        }
+        layoutView(layout);
+        layout.startShimmerAnimation();
+
+        CountingCanvas canvas = createCanvas();
+        results.add(FrameRecorder.record("UIShimmerLayout", WARM_UP_FRAMES, FRAMES, canvas, frameIndex -> {
+            layout.dispatchShimmerFrame(frameIndex * FRAME_INTERVAL_NANOS);
+            layout.draw(canvas);
+        }));
+    }
+
+    @Test
+    public void roundedImageView() {
+        CountingCanvas canvas = createCanvas();
+        results.add(FrameRecorder.record("UIImageView.clip", WARM_UP_FRAMES, FRAMES, canvas, createImageViewFrame(false, canvas)));
+    }
+
+    @Test
+    public void roundedImageViewBitmapShader() {
+        CountingCanvas canvas = createCanvas();
+        results.add(FrameRecorder.record("UIImageView.bitmapShader", WARM_UP_FRAMES, FRAMES, canvas, createImageViewFrame(true, canvas)));
+    }
+
+    private FrameRecorder.Frame createImageViewFrame(boolean bitmapShader, CountingCanvas canvas) {
+        Context context = RuntimeEnvironment.getApplication();
+        UIImageView imageView = new UIImageView(context);
+        imageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
+        imageView.setImageBitmap(Bitmap.createBitmap(WIDTH * 2, HEIGHT * 2, Bitmap.Config.ARGB_8888));
+        imageView.setBitmapShaderEnabled(bitmapShader);
+        imageView.edit()
+                .setCorners(new CornersF(24.0f, 24.0f, 8.0f, 8.0f))
+                .setFillColor(Color.LTGRAY)
+                .apply();
+        layoutView(imageView);
+        return frameIndex -> imageView.draw(canvas);
+    }
+
+    private static void layoutView(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static CountingCanvas createCanvas() {
+        return new CountingCanvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+}
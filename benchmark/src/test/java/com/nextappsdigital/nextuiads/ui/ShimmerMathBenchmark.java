@@ -0,0 +1,33 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the shimmer geometry computed on every shimmer (re)start.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShimmerMathBenchmark {
+
+    @Param({"0", "20", "-45"})
+    public int shimmerAngle;
+
+    @Benchmark
+    public int calculateShimmerMaskWidth() {
+        return UIShimmerLayout.calculateShimmerMaskWidth(1080, 320, 0.5f, shimmerAngle);
+    }
+
+    @Benchmark
+    public float[] getGradientColorDistribution() {
+        return UIShimmerLayout.getGradientColorDistribution(0.1f);
+    }
+}
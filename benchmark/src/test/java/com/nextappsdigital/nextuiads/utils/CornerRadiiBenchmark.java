@@ -0,0 +1,40 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the radius mapping done by {@link UICornersHelper#setCorners(float, CornersF)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CornerRadiiBenchmark {
+
+    private final CornersF corners = new CornersF(8.0f, 12.0f, 0.0f, 16.0f);
+    private final float[] cornerRadii = new float[8];
+
+    @Benchmark
+    public float[] perCornerLtr() {
+        UICornersHelper.resolveCornerRadii(0.0f, corners, false, cornerRadii);
+        return cornerRadii;
+    }
+
+    @Benchmark
+    public float[] perCornerRtl() {
+        UICornersHelper.resolveCornerRadii(0.0f, corners, true, cornerRadii);
+        return cornerRadii;
+    }
+
+    @Benchmark
+    public float[] defaultRadius() {
+        UICornersHelper.resolveCornerRadii(12.0f, corners, false, cornerRadii);
+        return cornerRadii;
+    }
+}
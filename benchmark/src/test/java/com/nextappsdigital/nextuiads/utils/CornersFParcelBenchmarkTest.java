@@ -0,0 +1,41 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.os.Parcel;
+
+import com.nextappsdigital.nextuiads.benchmark.BenchmarkReport;
+import com.nextappsdigital.nextuiads.benchmark.FrameRecorder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Measures the {@link CornersF} parcel round trip. Parcel is backed by Robolectric, so this runs
+ * next to the draw loops rather than under JMH. Results are written to {@code corners-parcel.json}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CornersFParcelBenchmarkTest {
+
+    private static final int WARM_UP_ITERATIONS = 1000;
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    public void parcelRoundTrip() throws IOException {
+        CornersF corners = new CornersF(24.0f, 24.0f, 8.0f, 8.0f);
+        Parcel parcel = Parcel.obtain();
+        try {
+            BenchmarkReport.Result result = FrameRecorder.record("CornersF.parcel", WARM_UP_ITERATIONS, ITERATIONS, null, iteration -> {
+                parcel.setDataPosition(0);
+                corners.writeToParcel(parcel, 0);
+                parcel.setDataPosition(0);
+                CornersF.CREATOR.createFromParcel(parcel);
+            });
+            BenchmarkReport.write("corners-parcel.json", Collections.singletonList(result));
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
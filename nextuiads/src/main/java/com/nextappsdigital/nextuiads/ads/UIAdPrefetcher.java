@@ -0,0 +1,382 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UIImageLoader;
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Loads native ads ahead of time so they are ready before their slot scrolls into view.
+ * <p>
+ * Each placement and style has a bounded queue of loaded ads, filled by {@link #prefetch(String, int)}.
+ * Loaded ads expire after {@link #getTimeToLiveMillis()}. At most {@link #getMaxInFlightRequests()}
+ * loads run at once across all placements, and further loads wait their turn. Requests for the
+ * same placement and style are coalesced, so prefetching and waiting slots never issue more loads
+ * than there are ads missing. The images of every loaded ad are decoded in the background at
+ * the size the built-in template of its style shows them at, so binding the ad hits the image cache.
+ */
+@MainThread
+public final class UIAdPrefetcher {
+
+    private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60L * 60L * 1000L;
+    private static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 2;
+    private static final int DEFAULT_QUEUE_SIZE = 1;
+
+    /**
+     * Receives an ad requested with {@link #request(String, int, Listener)} on the main thread.
+     */
+    public interface Listener {
+        void onAdReady(@NonNull UINativeAd ad);
+
+        void onAdFailed(@NonNull Exception error);
+    }
+
+    /**
+     * A waiting request that can be cancelled, e.g. when its slot is recycled.
+     */
+    public static final class Request {
+        private final Slot slot;
+        private final Listener listener;
+
+        Request(Slot slot, Listener listener) {
+            this.slot = slot;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            slot.waiters.remove(this);
+        }
+    }
+
+    private static final class LoadedAd {
+        final UINativeAd ad;
+        final long loadedAtMillis;
+
+        LoadedAd(UINativeAd ad, long loadedAtMillis) {
+            this.ad = ad;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+
+    private static final class Slot {
+        final String placement;
+        final int style;
+        final ArrayDeque<LoadedAd> ads = new ArrayDeque<>();
+        final ArrayDeque<Request> waiters = new ArrayDeque<>();
+        int queueSize = DEFAULT_QUEUE_SIZE;
+        // Loads started or waiting for an in-flight permit.
+        int loadingCount;
+
+        Slot(String placement, int style) {
+            this.placement = placement;
+            this.style = style;
+        }
+    }
+
+    private final Context context;
+    private final UIAdSource adSource;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final HashMap<String, Slot> slots = new HashMap<>();
+    private final ArrayDeque<Slot> pendingLoads = new ArrayDeque<>();
+    private final WarmUpTarget warmUpTarget = new WarmUpTarget();
+    private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+    private int maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+    private int inFlightCount;
+    private boolean isImageWarmUpEnabled = true;
+    private int mediaWarmUpWidth;
+    private int mediaWarmUpHeight;
+
+    public UIAdPrefetcher(@NonNull Context context, @NonNull UIAdSource adSource) {
+        this.context = context.getApplicationContext();
+        this.adSource = adSource;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * Sets how long a loaded ad may wait in the queue before it is discarded.
+     */
+    public void setTimeToLiveMillis(long timeToLiveMillis) {
+        if (timeToLiveMillis <= 0L) {
+            throw new IllegalArgumentException("timeToLiveMillis must be positive");
+        }
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        if (maxInFlightRequests <= 0) {
+            throw new IllegalArgumentException("maxInFlightRequests must be positive");
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+        startPendingLoads();
+    }
+
+    /**
+     * Sets how many loaded ads are kept ready for the placement and style.
+     */
+    public void setQueueSize(@NonNull String placement, int style, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        Slot slot = getSlot(placement, style);
+        slot.queueSize = size;
+        while (slot.ads.size() > size) {
+            slot.ads.pollLast();
+        }
+    }
+
+    public void setImageWarmUpEnabled(boolean enabled) {
+        isImageWarmUpEnabled = enabled;
+    }
+
+    /**
+     * Sets the size media images are decoded at ahead of time, for styles whose template has a
+     * media view. Set it to the laid-out content size of that view when the ad is not shown at full
+     * screen width, or for {@link UINativeAdView#STYLE_FULL}, whose media height depends on the
+     * container. Pass 0 to go back to the default, the media view of the large template at full
+     * screen width.
+     */
+    public void setMediaWarmUpSize(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("width and height must not be negative");
+        }
+        mediaWarmUpWidth = width;
+        mediaWarmUpHeight = height;
+    }
+
+    /**
+     * Tops the queue of the placement and style up to its size.
+     */
+    public void prefetch(@NonNull String placement, int style) {
+        Slot slot = getSlot(placement, style);
+        removeExpiredAds(slot);
+        scheduleMissingLoads(slot);
+    }
+
+    /**
+     * Returns the oldest unexpired loaded ad, or null if none is ready. The queue is refilled.
+     */
+    @Nullable
+    public UINativeAd poll(@NonNull String placement, int style) {
+        Slot slot = getSlot(placement, style);
+        removeExpiredAds(slot);
+        LoadedAd loadedAd = slot.ads.pollFirst();
+        scheduleMissingLoads(slot);
+        return loadedAd != null ? loadedAd.ad : null;
+    }
+
+    /**
+     * Delivers a loaded ad to the listener, synchronously if one is ready. Otherwise the request
+     * joins the loads already running for the placement and style, and only missing loads are started.
+     *
+     * @return the request to cancel, or null if the ad was delivered synchronously
+     */
+    @Nullable
+    public Request request(@NonNull String placement, int style, @NonNull Listener listener) {
+        UINativeAd ad = poll(placement, style);
+        if (ad != null) {
+            listener.onAdReady(ad);
+            return null;
+        }
+        Slot slot = getSlot(placement, style);
+        Request request = new Request(slot, listener);
+        slot.waiters.addLast(request);
+        scheduleMissingLoads(slot);
+        return request;
+    }
+
+    /**
+     * Drops all loaded ads and waiting requests. Loads in flight complete into empty queues.
+     */
+    public void clear() {
+        for (Slot slot : slots.values()) {
+            slot.ads.clear();
+            slot.waiters.clear();
+        }
+        for (Slot slot : pendingLoads) {
+            slot.loadingCount--;
+        }
+        pendingLoads.clear();
+    }
+
+    private Slot getSlot(String placement, int style) {
+        String key = placement + '#' + style;
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = new Slot(placement, style);
+            slots.put(key, slot);
+        }
+        return slot;
+    }
+
+    private void removeExpiredAds(Slot slot) {
+        long now = SystemClock.elapsedRealtime();
+        Iterator<LoadedAd> iterator = slot.ads.iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().loadedAtMillis >= timeToLiveMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Schedules loads for the ads the slot is missing: one per waiting request plus the free
+     * queue capacity, minus the loads already running for it.
+     */
+    private void scheduleMissingLoads(Slot slot) {
+        int missing = slot.waiters.size() + Math.max(0, slot.queueSize - slot.ads.size()) - slot.loadingCount;
+        for (int i = 0; i < missing; i++) {
+            slot.loadingCount++;
+            pendingLoads.addLast(slot);
+        }
+        startPendingLoads();
+    }
+
+    private void startPendingLoads() {
+        while (inFlightCount < maxInFlightRequests && !pendingLoads.isEmpty()) {
+            Slot slot = pendingLoads.pollFirst();
+            inFlightCount++;
+            adSource.loadAd(slot.placement, slot.style, new LoadCallback(slot));
+        }
+    }
+
+    private void onLoadFinished(Slot slot, UINativeAd ad, Exception error) {
+        inFlightCount--;
+        slot.loadingCount = Math.max(0, slot.loadingCount - 1);
+        if (ad != null) {
+            warmUpImages(slot.style, ad);
+            Request waiter = slot.waiters.pollFirst();
+            if (waiter != null) {
+                waiter.listener.onAdReady(ad);
+            } else if (slot.ads.size() < slot.queueSize) {
+                slot.ads.addLast(new LoadedAd(ad, SystemClock.elapsedRealtime()));
+            }
+        } else {
+            // Fail the oldest waiter only once no other load can still serve it.
+            Request waiter = slot.waiters.peekFirst();
+            if (waiter != null && slot.loadingCount < slot.waiters.size()) {
+                slot.waiters.pollFirst();
+                waiter.listener.onAdFailed(error);
+            }
+        }
+        startPendingLoads();
+    }
+
+    /**
+     * Decodes the images the template of the style shows, at the sizes its views lay out at, which
+     * are the sizes {@link com.nextappsdigital.nextuiads.ui.UIImageView} requests them at.
+     * Custom styles are skipped, as their layout is unknown.
+     */
+    private void warmUpImages(int style, UINativeAd ad) {
+        if (!isImageWarmUpEnabled) {
+            return;
+        }
+        boolean hasMediaView;
+        switch (style) {
+            case UINativeAdView.STYLE_SMALL:
+            case UINativeAdView.STYLE_MEDIUM:
+                hasMediaView = false;
+                break;
+            case UINativeAdView.STYLE_LARGE:
+            case UINativeAdView.STYLE_FULL:
+                hasMediaView = true;
+                break;
+            default:
+                return;
+        }
+        UIImageLoader imageLoader = UIImageLoader.getInstance(context);
+        Resources resources = context.getResources();
+        UIImageSource icon = ad.getIcon();
+        if (icon != null) {
+            int iconSize = resources.getDimensionPixelSize(R.dimen.ui_native_ad_icon_size);
+            imageLoader.load(icon, iconSize, iconSize, warmUpTarget);
+        }
+        UIImageSource media = ad.getMedia();
+        if (media == null || !hasMediaView) {
+            return;
+        }
+        int mediaWidth = mediaWarmUpWidth;
+        int mediaHeight = mediaWarmUpHeight;
+        if (mediaWidth == 0 || mediaHeight == 0) {
+            if (style == UINativeAdView.STYLE_FULL) {
+                // The media view takes the remaining height, which only the layout knows.
+                return;
+            }
+            // Full width inside the template padding, at the fixed media height.
+            int padding = resources.getDimensionPixelSize(R.dimen.ui_spacing);
+            mediaWidth = resources.getDisplayMetrics().widthPixels - padding * 2;
+            mediaHeight = resources.getDimensionPixelSize(R.dimen.ui_native_ad_media_height);
+        }
+        if (mediaWidth > 0 && mediaHeight > 0) {
+            imageLoader.load(media, mediaWidth, mediaHeight, warmUpTarget);
+        }
+    }
+
+    private final class LoadCallback implements UIAdSource.Callback {
+        private final Slot slot;
+        private boolean isFinished;
+
+        LoadCallback(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void onAdLoaded(@NonNull UINativeAd ad) {
+            finish(ad, null);
+        }
+
+        @Override
+        public void onAdFailed(@NonNull Exception error) {
+            finish(null, error);
+        }
+
+        private void finish(UINativeAd ad, Exception error) {
+            if (Looper.myLooper() != Looper.getMainLooper()) {
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        finish(ad, error);
+                    }
+                });
+                return;
+            }
+            if (isFinished) {
+                return;
+            }
+            isFinished = true;
+            onLoadFinished(slot, ad, error);
+        }
+    }
+
+    private static final class WarmUpTarget implements UIImageLoader.Target {
+        @Override
+        public void onImageLoaded(@NonNull Bitmap bitmap) {
+            // Kept in the loader caches for the template to pick up.
+        }
+
+        @Override
+        public void onImageLoadFailed(@NonNull Exception error) {
+            // The template retries when it binds the ad.
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Loads native ads from an ad network. {@link UIAdPrefetcher} only talks to ad networks through
+ * this interface, so it can be backed by any SDK or by {@link UIFakeAdSource} offline.
+ */
+public interface UIAdSource {
+
+    /**
+     * Receives the result of one load. May be called on any thread, exactly once per load.
+     */
+    interface Callback {
+        void onAdLoaded(@NonNull UINativeAd ad);
+
+        void onAdFailed(@NonNull Exception error);
+    }
+
+    /**
+     * Starts loading one ad. Called on the main thread.
+     *
+     * @param placement the placement or ad unit the ad is for
+     * @param style the {@code adsNativeStyle} the ad will be shown with
+     */
+    void loadAd(@NonNull String placement, int style, @NonNull Callback callback);
+}
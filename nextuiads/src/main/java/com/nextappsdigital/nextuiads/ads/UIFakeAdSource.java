@@ -0,0 +1,82 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+
+import java.io.IOException;
+
+/**
+ * An in-process {@link UIAdSource} that serves {@link UIFakeNativeAd}s after a fixed latency,
+ * with optional failures, so loading and prefetching can be exercised without a network. With
+ * {@link #setImageUris(Context, Uri, Uri)} the ads carry an icon and media image, so image loading
+ * and warm-up run as they would for a real creative.
+ */
+public class UIFakeAdSource implements UIAdSource {
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private long latencyMillis;
+    private int failureCount;
+    private int loadCount;
+    private UIImageSource icon;
+    private UIImageSource media;
+
+    @Override
+    public void loadAd(@NonNull String placement, int style, @NonNull Callback callback) {
+        loadCount++;
+        final boolean isFailure = failureCount > 0;
+        if (isFailure) {
+            failureCount--;
+        }
+        final int number = loadCount;
+        Runnable result = new Runnable() {
+            @Override
+            public void run() {
+                if (isFailure) {
+                    callback.onAdFailed(new IOException("No fill for " + placement));
+                } else {
+                    callback.onAdLoaded(new UIFakeNativeAd("Test ad " + number, "Test ad body for " + placement, "Install",
+                            "Test advertiser", 4.5f, icon, media));
+                }
+            }
+        };
+        if (latencyMillis > 0L) {
+            mainHandler.postDelayed(result, latencyMillis);
+        } else {
+            result.run();
+        }
+    }
+
+    /**
+     * Sets how long each load takes. With 0, loads complete synchronously.
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Makes the next {@code count} loads fail.
+     */
+    public void setFailureCount(int count) {
+        failureCount = count;
+    }
+
+    /**
+     * Sets the images of the ads loaded from now on, e.g. {@code android.resource} URIs of drawables
+     * bundled with the sample. Pass null for ads without that image.
+     */
+    public void setImageUris(@NonNull Context context, @Nullable Uri iconUri, @Nullable Uri mediaUri) {
+        icon = iconUri != null ? UIImageSource.fromUri(context, iconUri) : null;
+        media = mediaUri != null ? UIImageSource.fromUri(context, mediaUri) : null;
+    }
+
+    public int getLoadCount() {
+        return loadCount;
+    }
+}
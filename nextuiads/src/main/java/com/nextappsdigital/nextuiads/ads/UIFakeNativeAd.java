@@ -0,0 +1,97 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+
+/**
+ * A native ad with fixed content that counts impressions and clicks, for previews, demos and
+ * tests that must not reach an ad network.
+ */
+public class UIFakeNativeAd implements UINativeAd {
+
+    private final String headline;
+    private final String body;
+    private final String callToAction;
+    private final String advertiser;
+    private final float starRating;
+    private final UIImageSource icon;
+    private final UIImageSource media;
+    private int impressionCount;
+    private int clickCount;
+
+    public UIFakeNativeAd(@NonNull String headline, @NonNull String body, @NonNull String callToAction) {
+        this(headline, body, callToAction, null, 0.0f, null, null);
+    }
+
+    public UIFakeNativeAd(@Nullable String headline, @Nullable String body, @Nullable String callToAction, @Nullable String advertiser,
+                          float starRating, @Nullable UIImageSource icon, @Nullable UIImageSource media) {
+        this.headline = headline;
+        this.body = body;
+        this.callToAction = callToAction;
+        this.advertiser = advertiser;
+        this.starRating = starRating;
+        this.icon = icon;
+        this.media = media;
+    }
+
+    @Nullable
+    @Override
+    public String getHeadline() {
+        return headline;
+    }
+
+    @Nullable
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Nullable
+    @Override
+    public String getCallToAction() {
+        return callToAction;
+    }
+
+    @Nullable
+    @Override
+    public String getAdvertiser() {
+        return advertiser;
+    }
+
+    @Override
+    public float getStarRating() {
+        return starRating;
+    }
+
+    @Nullable
+    @Override
+    public UIImageSource getIcon() {
+        return icon;
+    }
+
+    @Nullable
+    @Override
+    public UIImageSource getMedia() {
+        return media;
+    }
+
+    @Override
+    public void recordImpression() {
+        impressionCount++;
+    }
+
+    @Override
+    public void performClick() {
+        clickCount++;
+    }
+
+    public int getImpressionCount() {
+        return impressionCount;
+    }
+
+    public int getClickCount() {
+        return clickCount;
+    }
+}
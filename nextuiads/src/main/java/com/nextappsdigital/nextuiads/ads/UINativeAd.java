@@ -0,0 +1,45 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+
+/**
+ * The content of a native ad, independent of the network that served it. Implementations adapt
+ * an ad network's native ad object; {@link UIFakeNativeAd} is a local stand-in.
+ */
+public interface UINativeAd {
+
+    @Nullable
+    String getHeadline();
+
+    @Nullable
+    String getBody();
+
+    @Nullable
+    String getCallToAction();
+
+    @Nullable
+    String getAdvertiser();
+
+    /**
+     * Returns the star rating between 0 and 5, or 0 if the ad has none.
+     */
+    float getStarRating();
+
+    @Nullable
+    UIImageSource getIcon();
+
+    @Nullable
+    UIImageSource getMedia();
+
+    /**
+     * Called once per ad, the first time a template showing it is drawn on screen.
+     */
+    void recordImpression();
+
+    /**
+     * Called when the call to action of a bound template is clicked.
+     */
+    void performClick();
+}
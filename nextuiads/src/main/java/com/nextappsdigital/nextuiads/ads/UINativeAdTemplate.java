@@ -0,0 +1,193 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.graphics.Rect;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.RatingBar;
+import android.widget.TextView;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+import com.nextappsdigital.nextuiads.ui.UIImageView;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * An inflated native ad layout with its views already looked up, so binding an ad is a handful
+ * of setters. Templates may be inflated on any thread but must be bound on the main thread.
+ * Custom layouts use the same ids as the built-in ones; missing views are skipped.
+ * <p>
+ * An ad's impression is recorded once, the first time a template showing it is drawn while at
+ * least partly on screen. Pooled, rebound and off-screen templates do not count.
+ */
+public final class UINativeAdTemplate {
+
+    // Ads whose impression has been recorded, across all templates. Main thread only.
+    private static final Set<UINativeAd> recordedImpressions = Collections.newSetFromMap(new WeakHashMap<UINativeAd, Boolean>());
+
+    @LayoutRes
+    private final int layoutRes;
+    private final View rootView;
+    private final TextView headlineView;
+    private final TextView bodyView;
+    private final TextView callToActionView;
+    private final TextView advertiserView;
+    private final RatingBar starRatingView;
+    private final UIImageView iconView;
+    private final UIImageView mediaView;
+    private UINativeAd nativeAd;
+    private final ImpressionTracker impressionTracker = new ImpressionTracker();
+    private final View.OnClickListener callToActionListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View view) {
+            if (nativeAd != null) {
+                nativeAd.performClick();
+            }
+        }
+    };
+
+    private UINativeAdTemplate(@LayoutRes int layoutRes, View rootView) {
+        this.layoutRes = layoutRes;
+        this.rootView = rootView;
+        rootView.addOnAttachStateChangeListener(impressionTracker);
+        headlineView = rootView.findViewById(R.id.ui_native_ad_headline);
+        bodyView = rootView.findViewById(R.id.ui_native_ad_body);
+        callToActionView = rootView.findViewById(R.id.ui_native_ad_call_to_action);
+        advertiserView = rootView.findViewById(R.id.ui_native_ad_advertiser);
+        starRatingView = rootView.findViewById(R.id.ui_native_ad_star_rating);
+        iconView = rootView.findViewById(R.id.ui_native_ad_icon);
+        mediaView = rootView.findViewById(R.id.ui_native_ad_media);
+    }
+
+    /**
+     * Inflates the layout without a parent. Safe to call off the main thread for the built-in
+     * templates, which only use widgets that do not need a Looper while being constructed.
+     */
+    @NonNull
+    static UINativeAdTemplate inflate(@NonNull LayoutInflater inflater, @LayoutRes int layoutRes) {
+        return new UINativeAdTemplate(layoutRes, inflater.inflate(layoutRes, null, false));
+    }
+
+    @LayoutRes
+    public int getLayoutRes() {
+        return layoutRes;
+    }
+
+    @NonNull
+    public View getRootView() {
+        return rootView;
+    }
+
+    @Nullable
+    public UINativeAd getNativeAd() {
+        return nativeAd;
+    }
+
+    public void bind(@NonNull UINativeAd ad) {
+        nativeAd = ad;
+        bindText(headlineView, ad.getHeadline());
+        bindText(bodyView, ad.getBody());
+        bindText(callToActionView, ad.getCallToAction());
+        bindText(advertiserView, ad.getAdvertiser());
+        if (starRatingView != null) {
+            float starRating = ad.getStarRating();
+            starRatingView.setRating(starRating);
+            starRatingView.setVisibility(starRating > 0.0f ? View.VISIBLE : View.GONE);
+        }
+        bindImage(iconView, ad.getIcon());
+        bindImage(mediaView, ad.getMedia());
+        if (callToActionView != null) {
+            callToActionView.setOnClickListener(callToActionListener);
+        }
+        impressionTracker.update();
+    }
+
+    /**
+     * Clears the bound ad and cancels pending image loads so the template can be reused.
+     */
+    public void unbind() {
+        nativeAd = null;
+        impressionTracker.update();
+        if (callToActionView != null) {
+            callToActionView.setOnClickListener(null);
+        }
+        bindImage(iconView, null);
+        bindImage(mediaView, null);
+    }
+
+    private static void bindText(TextView view, String text) {
+        if (view == null) {
+            return;
+        }
+        view.setText(text);
+        view.setVisibility(TextUtils.isEmpty(text) ? View.GONE : View.VISIBLE);
+    }
+
+    private static void bindImage(UIImageView view, UIImageSource source) {
+        if (view == null) {
+            return;
+        }
+        view.cancelImageLoad();
+        view.setImageDrawable(null);
+        if (source != null) {
+            view.setImageSource(source);
+        }
+    }
+
+    /**
+     * Waits for the first frame in which the bound ad is visible, then records its impression.
+     */
+    private final class ImpressionTracker implements ViewTreeObserver.OnPreDrawListener, View.OnAttachStateChangeListener {
+        private final Rect visibleRect = new Rect();
+        private ViewTreeObserver observer;
+
+        void update() {
+            boolean isPending = nativeAd != null && !recordedImpressions.contains(nativeAd);
+            if (isPending && observer == null && rootView.isAttachedToWindow()) {
+                observer = rootView.getViewTreeObserver();
+                observer.addOnPreDrawListener(this);
+            } else if (!isPending) {
+                stop();
+            }
+        }
+
+        private void stop() {
+            if (observer != null) {
+                if (observer.isAlive()) {
+                    observer.removeOnPreDrawListener(this);
+                }
+                observer = null;
+            }
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            if (nativeAd == null || recordedImpressions.contains(nativeAd)) {
+                stop();
+            } else if (rootView.isShown() && rootView.getGlobalVisibleRect(visibleRect)) {
+                recordedImpressions.add(nativeAd);
+                stop();
+                nativeAd.recordImpression();
+            }
+            return true;
+        }
+
+        @Override
+        public void onViewAttachedToWindow(@NonNull View view) {
+            update();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull View view) {
+            stop();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nextappsdigital.nextuiads.R;
+
+/**
+ * Shows a {@link UINativeAd} in one of the built-in templates selected with {@code adsNativeStyle},
+ * or in a custom layout set with {@code gnt_template_type}. The layout given by
+ * {@code gnt_template_start} is shown until an ad is bound.
+ * <p>
+ * With a {@link UINativeAdViewPool} set, templates are taken from the pool, so binding an ad in a
+ * feed does not inflate on the main thread; without one, or while the pool is still warming up,
+ * the template is inflated in place.
+ */
+public class UINativeAdView extends FrameLayout {
+
+    public static final int STYLE_MEDIUM = 0;
+    public static final int STYLE_SMALL = 1;
+    public static final int STYLE_LARGE = 2;
+    public static final int STYLE_FULL = 3;
+
+    @LayoutRes
+    private int templateLayout = R.layout.ui_native_ad_medium;
+    private View placeholderView;
+    private UINativeAdViewPool viewPool;
+    private UINativeAdTemplate template;
+
+    public UINativeAdView(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public UINativeAdView(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public UINativeAdView(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initializeAttributes(context, attrs, defStyleAttr);
+    }
+
+    private void initializeAttributes(Context context, AttributeSet attrs, int defStyleAttr) {
+        if (attrs == null) {
+            return;
+        }
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
+        templateLayout = getLayoutForStyle(typedArray.getInt(R.styleable.NextView_adsNativeStyle, STYLE_MEDIUM));
+        typedArray.recycle();
+
+        typedArray = context.obtainStyledAttributes(attrs, R.styleable.TemplateView, defStyleAttr, 0);
+        templateLayout = typedArray.getResourceId(R.styleable.TemplateView_gnt_template_type, templateLayout);
+        int placeholderLayout = typedArray.getResourceId(R.styleable.TemplateView_gnt_template_start, 0);
+        typedArray.recycle();
+
+        if (placeholderLayout != 0) {
+            placeholderView = LayoutInflater.from(context).inflate(placeholderLayout, this, false);
+            addView(placeholderView);
+        }
+    }
+
+    /**
+     * Returns the built-in template layout of a style.
+     *
+     * @param style one of {@link #STYLE_SMALL}, {@link #STYLE_MEDIUM}, {@link #STYLE_LARGE} or {@link #STYLE_FULL}
+     */
+    @LayoutRes
+    public static int getLayoutForStyle(int style) {
+        switch (style) {
+            case STYLE_SMALL:
+                return R.layout.ui_native_ad_small;
+            case STYLE_MEDIUM:
+                return R.layout.ui_native_ad_medium;
+            case STYLE_LARGE:
+                return R.layout.ui_native_ad_large;
+            case STYLE_FULL:
+                return R.layout.ui_native_ad_full;
+            default:
+                throw new IllegalArgumentException("Unknown native ad style " + style);
+        }
+    }
+
+    public void setNativeAdStyle(int style) {
+        setTemplateLayout(getLayoutForStyle(style));
+    }
+
+    @LayoutRes
+    public int getTemplateLayout() {
+        return templateLayout;
+    }
+
+    /**
+     * Sets the layout ads are bound into. A bound ad is moved to the new layout.
+     */
+    public void setTemplateLayout(@LayoutRes int layoutRes) {
+        if (templateLayout == layoutRes) {
+            return;
+        }
+        templateLayout = layoutRes;
+        UINativeAd nativeAd = getNativeAd();
+        if (nativeAd != null) {
+            releaseTemplate();
+            setNativeAd(nativeAd);
+        }
+    }
+
+    public void setViewPool(@Nullable UINativeAdViewPool pool) {
+        viewPool = pool;
+    }
+
+    @Nullable
+    public UINativeAd getNativeAd() {
+        return template != null ? template.getNativeAd() : null;
+    }
+
+    /**
+     * Binds the ad into the template, or shows the placeholder again when null. Recycled feed
+     * items should pass null, which returns the template to the pool.
+     */
+    public void setNativeAd(@Nullable UINativeAd ad) {
+        if (ad == null) {
+            releaseTemplate();
+            setPlaceholderVisible(true);
+            return;
+        }
+        if (template == null) {
+            template = obtainTemplate();
+            addView(template.getRootView(), new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, getTemplateHeight()));
+        } else {
+            template.unbind();
+        }
+        template.bind(ad);
+        setPlaceholderVisible(false);
+    }
+
+    private UINativeAdTemplate obtainTemplate() {
+        UINativeAdTemplate pooled = viewPool != null ? viewPool.acquire(templateLayout) : null;
+        if (pooled != null) {
+            return pooled;
+        }
+        return UINativeAdTemplate.inflate(LayoutInflater.from(getContext()), templateLayout);
+    }
+
+    private int getTemplateHeight() {
+        return templateLayout == R.layout.ui_native_ad_full ? ViewGroup.LayoutParams.MATCH_PARENT : ViewGroup.LayoutParams.WRAP_CONTENT;
+    }
+
+    private void releaseTemplate() {
+        if (template == null) {
+            return;
+        }
+        UINativeAdTemplate released = template;
+        template = null;
+        removeView(released.getRootView());
+        released.unbind();
+        if (viewPool != null) {
+            viewPool.release(released);
+        }
+    }
+
+    private void setPlaceholderVisible(boolean visible) {
+        if (placeholderView != null) {
+            placeholderView.setVisibility(visible ? View.VISIBLE : View.GONE);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
+import android.view.InflateException;
+import android.view.LayoutInflater;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Keeps inflated native ad templates ready per layout, so a feed can bind an ad without paying
+ * inflation on the main thread. Each layout has a budget set with {@link #setPoolSize(int, int)};
+ * the pool inflates on a background thread until the budget is met and refills after every
+ * {@link #acquire(int)}.
+ * <p>
+ * Templates hold the context they were inflated with, so a pool should live no longer than that
+ * context, e.g. one pool per activity cleared in {@code onDestroy}.
+ */
+@MainThread
+public final class UINativeAdViewPool {
+
+    // A private clone for the worker; the context's shared inflater reuses its constructor
+    // arguments between inflations and must only be used on the main thread.
+    private final LayoutInflater inflater;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "UINativeAdViewPool");
+        }
+    });
+    private final SparseArray<ArrayDeque<UINativeAdTemplate>> templates = new SparseArray<>();
+    private final SparseIntArray poolSizes = new SparseIntArray();
+    private final SparseIntArray pendingInflations = new SparseIntArray();
+    private final SparseBooleanArray mainThreadOnlyLayouts = new SparseBooleanArray();
+    private boolean isCleared;
+
+    public UINativeAdViewPool(@NonNull Context context) {
+        inflater = LayoutInflater.from(context).cloneInContext(context);
+    }
+
+    /**
+     * Sets how many templates of the layout are kept ready and starts inflating the missing ones.
+     *
+     * @param layoutRes a template layout, e.g. {@link UINativeAdView#getLayoutForStyle(int)}
+     * @param size the number of idle templates to keep, or 0 to stop pooling the layout
+     */
+    public void setPoolSize(@LayoutRes int layoutRes, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        isCleared = false;
+        poolSizes.put(layoutRes, size);
+        ArrayDeque<UINativeAdTemplate> queue = getQueue(layoutRes);
+        while (queue.size() > size) {
+            queue.pollLast();
+        }
+        refill(layoutRes);
+    }
+
+    public int getPoolSize(@LayoutRes int layoutRes) {
+        return poolSizes.get(layoutRes);
+    }
+
+    /**
+     * Returns the number of templates of the layout that are inflated and idle.
+     */
+    public int getAvailableCount(@LayoutRes int layoutRes) {
+        return getQueue(layoutRes).size();
+    }
+
+    /**
+     * Takes a ready template of the layout, or returns null if none has been inflated yet. The
+     * pool starts inflating a replacement right away.
+     */
+    @Nullable
+    public UINativeAdTemplate acquire(@LayoutRes int layoutRes) {
+        UINativeAdTemplate template = getQueue(layoutRes).pollFirst();
+        refill(layoutRes);
+        return template;
+    }
+
+    /**
+     * Returns an unbound template for reuse. It is dropped if the layout's budget is already met.
+     */
+    public void release(@NonNull UINativeAdTemplate template) {
+        if (template.getRootView().getParent() != null) {
+            throw new IllegalArgumentException("template must be removed from its parent before release");
+        }
+        int layoutRes = template.getLayoutRes();
+        ArrayDeque<UINativeAdTemplate> queue = getQueue(layoutRes);
+        if (queue.size() + pendingInflations.get(layoutRes) < poolSizes.get(layoutRes)) {
+            template.unbind();
+            queue.addLast(template);
+        }
+    }
+
+    /**
+     * Drops every idle template and ignores inflations still in flight. Budgets set afterwards
+     * start pooling again.
+     */
+    public void clear() {
+        isCleared = true;
+        templates.clear();
+        poolSizes.clear();
+    }
+
+    private ArrayDeque<UINativeAdTemplate> getQueue(int layoutRes) {
+        ArrayDeque<UINativeAdTemplate> queue = templates.get(layoutRes);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            templates.put(layoutRes, queue);
+        }
+        return queue;
+    }
+
+    private void refill(int layoutRes) {
+        if (mainThreadOnlyLayouts.get(layoutRes)) {
+            return;
+        }
+        int missing = poolSizes.get(layoutRes) - getQueue(layoutRes).size() - pendingInflations.get(layoutRes);
+        for (int i = 0; i < missing; i++) {
+            pendingInflations.put(layoutRes, pendingInflations.get(layoutRes) + 1);
+            executor.execute(new InflateTask(layoutRes));
+        }
+    }
+
+    private void onInflated(int layoutRes, UINativeAdTemplate template) {
+        pendingInflations.put(layoutRes, Math.max(0, pendingInflations.get(layoutRes) - 1));
+        if (template == null) {
+            mainThreadOnlyLayouts.put(layoutRes, true);
+            return;
+        }
+        if (isCleared) {
+            return;
+        }
+        ArrayDeque<UINativeAdTemplate> queue = getQueue(layoutRes);
+        if (queue.size() < poolSizes.get(layoutRes)) {
+            queue.addLast(template);
+        }
+    }
+
+    private final class InflateTask implements Runnable {
+        private final int layoutRes;
+
+        InflateTask(int layoutRes) {
+            this.layoutRes = layoutRes;
+        }
+
+        @Override
+        public void run() {
+            UINativeAdTemplate template;
+            try {
+                template = UINativeAdTemplate.inflate(inflater, layoutRes);
+            } catch (InflateException | IllegalStateException e) {
+                // A widget in a custom layout needs the main thread; the layout is inflated on demand instead.
+                template = null;
+            }
+            final UINativeAdTemplate result = template;
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    onInflated(layoutRes, result);
+                }
+            });
+        }
+    }
+}
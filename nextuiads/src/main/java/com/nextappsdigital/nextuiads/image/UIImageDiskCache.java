@@ -0,0 +1,178 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A size-bounded disk cache of already downsampled bitmaps. Files are named after a hash of the
+ * cache key and the least recently used files are deleted once {@code maxBytes} is exceeded.
+ * <p>
+ * The directory is listed once, on first use, into an in-memory index that tracks recency and the
+ * total size from then on. The lock only guards the index; decoding and compressing happen outside
+ * it so decode threads do not wait on each other's file I/O.
+ */
+@WorkerThread
+final class UIImageDiskCache {
+
+    private static final int JPEG_QUALITY = 90;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+    private final AtomicInteger tempFileCount = new AtomicInteger();
+    // File name to length, in access order.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private boolean isIndexed;
+
+    UIImageDiskCache(@NonNull File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    @Nullable
+    Bitmap get(@NonNull String key) {
+        String name = hashKey(key);
+        synchronized (this) {
+            ensureIndexed();
+            if (entries.get(name) == null) {
+                return null;
+            }
+        }
+        File file = new File(directory, name);
+        Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+        if (bitmap == null) {
+            // Truncated or corrupt entry, or evicted while decoding.
+            synchronized (this) {
+                removeEntry(name);
+            }
+            return null;
+        }
+        // Keeps the recency order across restarts, when the index is rebuilt from the directory.
+        file.setLastModified(System.currentTimeMillis());
+        return bitmap;
+    }
+
+    void put(@NonNull String key, @NonNull Bitmap bitmap) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        String name = hashKey(key);
+        File tempFile = new File(directory, name + '.' + tempFileCount.incrementAndGet() + TEMP_SUFFIX);
+        Bitmap.CompressFormat format = bitmap.hasAlpha() ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG;
+        try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+            if (!bitmap.compress(format, JPEG_QUALITY, outputStream)) {
+                throw new IOException("Unable to compress " + key);
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+            return;
+        }
+        long length = tempFile.length();
+        synchronized (this) {
+            ensureIndexed();
+            if (!tempFile.renameTo(new File(directory, name))) {
+                tempFile.delete();
+                return;
+            }
+            Long previousLength = entries.put(name, length);
+            if (previousLength != null) {
+                totalBytes -= previousLength;
+            }
+            totalBytes += length;
+            trimToSize();
+        }
+    }
+
+    synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        entries.clear();
+        totalBytes = 0L;
+    }
+
+    /**
+     * Builds the index from the directory, least recently used first. Called with the lock held.
+     */
+    private void ensureIndexed() {
+        if (isIndexed) {
+            return;
+        }
+        isIndexed = true;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // Left behind by a process that died while writing.
+                file.delete();
+                continue;
+            }
+            long length = file.length();
+            entries.put(file.getName(), length);
+            totalBytes += length;
+        }
+        trimToSize();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            new File(directory, entry.getKey()).delete();
+            totalBytes -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    private void removeEntry(String name) {
+        Long length = entries.remove(name);
+        if (length != null) {
+            totalBytes -= length;
+            new File(directory, name).delete();
+        }
+    }
+
+    private static String hashKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
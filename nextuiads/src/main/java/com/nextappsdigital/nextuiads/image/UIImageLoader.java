@@ -0,0 +1,231 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes {@link UIImageSource}s off the main thread, downsampled to the size they are shown at.
+ * Results are cached in memory and on disk by (source, target size), and concurrent requests for
+ * the same key share one decode. All methods must be called on the main thread, and targets are
+ * notified on the main thread.
+ */
+@MainThread
+public final class UIImageLoader {
+
+    private static final String DISK_CACHE_DIRECTORY = "nextuiads_images";
+    private static final long DISK_CACHE_MAX_BYTES = 32L * 1024L * 1024L;
+    private static final int DECODE_THREAD_COUNT = 2;
+
+    private static UIImageLoader instance;
+
+    /**
+     * Receives the result of a load on the main thread.
+     */
+    public interface Target {
+        void onImageLoaded(@NonNull Bitmap bitmap);
+
+        void onImageLoadFailed(@NonNull Exception error);
+    }
+
+    /**
+     * A pending load that can be cancelled, e.g. when the view showing it is recycled.
+     */
+    public static final class Request {
+        private final LoadTask task;
+        private final Target target;
+        private boolean isCancelled;
+
+        Request(LoadTask task, Target target) {
+            this.task = task;
+            this.target = target;
+        }
+
+        public void cancel() {
+            if (!isCancelled) {
+                isCancelled = true;
+                task.removeRequest(this);
+            }
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final UIImageDiskCache diskCache;
+    private final HashMap<String, LoadTask> loadTasks = new HashMap<>();
+
+    private UIImageLoader(Context context) {
+        int memoryCacheBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8L);
+        memoryCache = new LruCache<String, Bitmap>(memoryCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+        diskCache = new UIImageDiskCache(new File(context.getCacheDir(), DISK_CACHE_DIRECTORY), DISK_CACHE_MAX_BYTES);
+        executor = Executors.newFixedThreadPool(DECODE_THREAD_COUNT, new DecodeThreadFactory());
+    }
+
+    @NonNull
+    public static UIImageLoader getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new UIImageLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the source downsampled to at least the given size. A memory cache hit is delivered
+     * synchronously and returns null; otherwise the returned request can be used to cancel.
+     */
+    @Nullable
+    public Request load(@NonNull UIImageSource source, int targetWidth, int targetHeight, @NonNull Target target) {
+        String key = createKey(source, targetWidth, targetHeight);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            target.onImageLoaded(cached);
+            return null;
+        }
+        LoadTask task = loadTasks.get(key);
+        if (task == null) {
+            task = new LoadTask(key, source, targetWidth, targetHeight);
+            loadTasks.put(key, task);
+            task.future = executor.submit(task);
+        }
+        Request request = new Request(task, target);
+        task.requests.add(request);
+        return request;
+    }
+
+    /**
+     * Returns the cached bitmap for the source at the given size, or null if it is not in memory.
+     */
+    @Nullable
+    public Bitmap getCached(@NonNull UIImageSource source, int targetWidth, int targetHeight) {
+        return memoryCache.get(createKey(source, targetWidth, targetHeight));
+    }
+
+    public void clearMemoryCache() {
+        memoryCache.evictAll();
+    }
+
+    private static String createKey(UIImageSource source, int targetWidth, int targetHeight) {
+        return source.getKey() + '@' + targetWidth + 'x' + targetHeight;
+    }
+
+    private final class LoadTask implements Runnable {
+        private final String key;
+        private final UIImageSource source;
+        private final int targetWidth;
+        private final int targetHeight;
+        private final ArrayList<Request> requests = new ArrayList<>();
+        private volatile boolean isCancelled;
+        private Future<?> future;
+
+        LoadTask(String key, UIImageSource source, int targetWidth, int targetHeight) {
+            this.key = key;
+            this.source = source;
+            this.targetWidth = targetWidth;
+            this.targetHeight = targetHeight;
+        }
+
+        void removeRequest(Request request) {
+            requests.remove(request);
+            if (requests.isEmpty() && loadTasks.get(key) == this) {
+                isCancelled = true;
+                loadTasks.remove(key);
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (isCancelled) {
+                return;
+            }
+            Bitmap bitmap = null;
+            Exception error = null;
+            boolean isDecoded = false;
+            try {
+                bitmap = diskCache.get(key);
+                if (bitmap == null) {
+                    bitmap = source.decode(targetWidth, targetHeight);
+                    isDecoded = true;
+                }
+            } catch (Exception | OutOfMemoryError e) {
+                error = e instanceof Exception ? (Exception) e : new RuntimeException(e);
+            }
+            final Bitmap result = bitmap;
+            final Exception failure = error;
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(result, failure);
+                }
+            });
+            // Written after posting so the compression does not delay the image on screen.
+            // The bitmap is not mutated once decoded, so reading it here while it is drawn is safe.
+            if (isDecoded) {
+                diskCache.put(key, result);
+            }
+        }
+
+        private void deliver(Bitmap bitmap, Exception error) {
+            if (loadTasks.get(key) == this) {
+                loadTasks.remove(key);
+            }
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+            }
+            // Targets may cancel requests, or start new loads, while they are notified.
+            Request[] delivered = requests.toArray(new Request[0]);
+            requests.clear();
+            for (Request request : delivered) {
+                if (request.isCancelled) {
+                    continue;
+                }
+                if (bitmap != null) {
+                    request.target.onImageLoaded(bitmap);
+                } else {
+                    request.target.onImageLoadFailed(error);
+                }
+            }
+        }
+    }
+
+    private static final class DecodeThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "UIImageLoader-" + threadCount.incrementAndGet());
+        }
+    }
+}
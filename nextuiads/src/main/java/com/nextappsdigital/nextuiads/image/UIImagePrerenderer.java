@@ -0,0 +1,260 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.DashPathEffect;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Renders a creative with its rounded corners, fill and stroke into a single bitmap on a
+ * background thread and caches the result, so showing it again costs one {@code drawBitmap}.
+ * Concurrent requests for the same spec key share one render. Must be called on the main thread;
+ * callbacks are delivered on the main thread.
+ */
+@MainThread
+public final class UIImagePrerenderer {
+
+    private static UIImagePrerenderer instance;
+
+    /**
+     * Receives a pre-rendered bitmap on the main thread.
+     */
+    public interface Callback {
+        void onPrerendered(@NonNull Spec spec, @NonNull Bitmap bitmap);
+    }
+
+    /**
+     * Everything that affects the pre-rendered output. Two specs with the same key produce the
+     * same bitmap.
+     */
+    public static final class Spec {
+        private final String sourceKey;
+        private final int width;
+        private final int height;
+        private final float[] cornerRadii;
+        private final boolean isFitXY;
+        @ColorInt
+        private final int fillColor;
+        @ColorInt
+        private final int strokeColor;
+        private final float strokeWidth;
+        private final float dashWidth;
+        private final float dashGap;
+        private final String key;
+
+        /**
+         * @param sourceKey the key of the image source
+         * @param width the width of the output in pixels
+         * @param height the height of the output in pixels
+         * @param cornerRadii the eight resolved corner radii
+         * @param isFitXY true to stretch the image, false to center-crop it
+         * @param fillColor the fill color drawn under the image, or 0
+         * @param strokeColor the stroke color
+         * @param strokeWidth the stroke width as passed to UICornersHelper, or 0
+         * @param dashWidth the dash length, or 0 for a solid stroke
+         * @param dashGap the gap between dashes, or 0 for a solid stroke
+         */
+        public Spec(@NonNull String sourceKey, int width, int height, @NonNull float[] cornerRadii, boolean isFitXY,
+                    @ColorInt int fillColor, @ColorInt int strokeColor, float strokeWidth, float dashWidth, float dashGap) {
+            this.sourceKey = sourceKey;
+            this.width = width;
+            this.height = height;
+            this.cornerRadii = cornerRadii.clone();
+            this.isFitXY = isFitXY;
+            this.fillColor = fillColor;
+            this.strokeColor = strokeColor;
+            this.strokeWidth = strokeWidth;
+            this.dashWidth = dashWidth;
+            this.dashGap = dashGap;
+            this.key = sourceKey + '@' + width + 'x' + height + (isFitXY ? ":xy" : ":crop")
+                    + Arrays.toString(this.cornerRadii) + ':' + fillColor + ':' + strokeColor + ':' + strokeWidth
+                    + ':' + dashWidth + ':' + dashGap;
+        }
+
+        @NonNull
+        public String getKey() {
+            return key;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "UIImagePrerenderer");
+        }
+    });
+    private final LruCache<String, Bitmap> cache;
+    // Renders in flight by spec key, with every request waiting for them.
+    private final HashMap<String, ArrayList<PendingRequest>> pendingRequests = new HashMap<>();
+
+    private static final class PendingRequest {
+        final Spec spec;
+        final Callback callback;
+
+        PendingRequest(Spec spec, Callback callback) {
+            this.spec = spec;
+            this.callback = callback;
+        }
+    }
+
+    private UIImagePrerenderer() {
+        int cacheBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 16L);
+        cache = new LruCache<String, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    @NonNull
+    public static UIImagePrerenderer getInstance() {
+        if (instance == null) {
+            instance = new UIImagePrerenderer();
+        }
+        return instance;
+    }
+
+    @Nullable
+    public Bitmap getCached(@NonNull Spec spec) {
+        return cache.get(spec.getKey());
+    }
+
+    /**
+     * Pre-renders the source bitmap for the spec. A cache hit is delivered synchronously, and a
+     * request for a key that is already rendering joins that render.
+     */
+    public void prerender(@NonNull Spec spec, @NonNull Bitmap source, @NonNull Callback callback) {
+        final String key = spec.getKey();
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            callback.onPrerendered(spec, cached);
+            return;
+        }
+        ArrayList<PendingRequest> pending = pendingRequests.get(key);
+        if (pending != null) {
+            pending.add(new PendingRequest(spec, callback));
+            return;
+        }
+        pending = new ArrayList<>();
+        pending.add(new PendingRequest(spec, callback));
+        pendingRequests.put(key, pending);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap;
+                try {
+                    bitmap = render(spec, source);
+                } catch (OutOfMemoryError e) {
+                    // Waiting views keep their regular draw.
+                    bitmap = null;
+                }
+                final Bitmap rendered = bitmap;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(key, rendered);
+                    }
+                });
+            }
+        });
+    }
+
+    private void deliver(String key, Bitmap rendered) {
+        ArrayList<PendingRequest> pending = pendingRequests.remove(key);
+        if (rendered == null || pending == null) {
+            return;
+        }
+        cache.put(key, rendered);
+        for (PendingRequest request : pending) {
+            request.callback.onPrerendered(request.spec, rendered);
+        }
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    @WorkerThread
+    private static Bitmap render(Spec spec, Bitmap source) {
+        Bitmap output = Bitmap.createBitmap(spec.width, spec.height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(output);
+        RectF bounds = new RectF(0.0f, 0.0f, spec.width, spec.height);
+        Path path = new Path();
+        path.addRoundRect(bounds, spec.cornerRadii, Path.Direction.CW);
+
+        if (spec.fillColor != 0) {
+            Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+            fillPaint.setColor(spec.fillColor);
+            canvas.drawPath(path, fillPaint);
+        }
+
+        Matrix matrix = new Matrix();
+        RectF sourceRect = new RectF(0.0f, 0.0f, source.getWidth(), source.getHeight());
+        if (spec.isFitXY) {
+            matrix.setRectToRect(sourceRect, bounds, Matrix.ScaleToFit.FILL);
+        } else {
+            float scale = Math.max(bounds.width() / sourceRect.width(), bounds.height() / sourceRect.height());
+            matrix.setScale(scale, scale);
+            matrix.postTranslate((bounds.width() - sourceRect.width() * scale) / 2.0f, (bounds.height() - sourceRect.height() * scale) / 2.0f);
+        }
+        BitmapShader shader = new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+        Paint imagePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG);
+        imagePaint.setShader(shader);
+        canvas.drawPath(path, imagePaint);
+
+        if (spec.strokeWidth > 0.0f) {
+            Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+            strokePaint.setStyle(Paint.Style.STROKE);
+            strokePaint.setColor(spec.strokeColor);
+            // Same as UICornersHelper: a doubled stroke clipped to the shape.
+            strokePaint.setStrokeWidth(spec.strokeWidth * 2.0f);
+            if (spec.dashWidth > 0.0f && spec.dashGap > 0.0f) {
+                strokePaint.setPathEffect(new DashPathEffect(new float[]{spec.dashWidth, spec.dashGap}, 0.0f));
+            }
+            canvas.save();
+            canvas.clipPath(path);
+            canvas.drawPath(path, strokePaint);
+            canvas.restore();
+        }
+        return output;
+    }
+}
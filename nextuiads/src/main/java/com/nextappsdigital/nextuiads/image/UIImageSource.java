@@ -0,0 +1,230 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Size;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An encoded image that {@link UIImageLoader} can decode, downsampled to a target size.
+ * Sources are identified by {@link #getKey()}, which must change whenever the content changes.
+ */
+public abstract class UIImageSource {
+
+    UIImageSource() {
+    }
+
+    /**
+     * Returns a stable identifier of the encoded content, used as part of the cache keys.
+     */
+    @NonNull
+    public abstract String getKey();
+
+    /**
+     * Decodes the image so that it is at least as large as the target in both dimensions while
+     * keeping its aspect ratio, never upscaling.
+     */
+    @NonNull
+    @WorkerThread
+    abstract Bitmap decode(int targetWidth, int targetHeight) throws IOException;
+
+    /**
+     * The file's size and modification time are read once, here, and become part of the key, so
+     * create a new source after the file changes.
+     */
+    @NonNull
+    public static UIImageSource fromFile(@NonNull File file) {
+        return new FileSource(file);
+    }
+
+    /**
+     * @param uri a {@code content}, {@code file} or {@code android.resource} URI. The URI is the
+     *            key, so its content must not change, e.g. a versioned creative URI.
+     */
+    @NonNull
+    public static UIImageSource fromUri(@NonNull Context context, @NonNull Uri uri) {
+        return new UriSource(context.getApplicationContext().getContentResolver(), uri);
+    }
+
+    /**
+     * @param id an identifier unique to this content, e.g. the creative id and revision
+     * @param data the encoded image
+     */
+    @NonNull
+    public static UIImageSource fromBytes(@NonNull String id, @NonNull byte[] data) {
+        return new BytesSource(id, data);
+    }
+
+    static float calculateScale(int width, int height, int targetWidth, int targetHeight) {
+        return Math.max((float) targetWidth / (float) width, (float) targetHeight / (float) height);
+    }
+
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= targetWidth && height / (inSampleSize * 2) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.P)
+    static Bitmap decodeWithImageDecoder(ImageDecoder.Source source, int targetWidth, int targetHeight) throws IOException {
+        return ImageDecoder.decodeBitmap(source, new ImageDecoder.OnHeaderDecodedListener() {
+            @Override
+            public void onHeaderDecoded(@NonNull ImageDecoder decoder, @NonNull ImageDecoder.ImageInfo info, @NonNull ImageDecoder.Source source) {
+                // Software bitmaps can be drawn on any canvas and compressed into the disk cache.
+                decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+                Size size = info.getSize();
+                float scale = calculateScale(size.getWidth(), size.getHeight(), targetWidth, targetHeight);
+                if (scale < 1.0f) {
+                    decoder.setTargetSize(Math.max(1, Math.round(size.getWidth() * scale)), Math.max(1, Math.round(size.getHeight() * scale)));
+                }
+            }
+        });
+    }
+
+    private static IOException decodeFailed(String key) {
+        return new IOException("Unable to decode image " + key);
+    }
+
+    private static final class FileSource extends UIImageSource {
+        private final File file;
+        private final String key;
+
+        FileSource(File file) {
+            this.file = file;
+            // Resolved once, as getKey() is called on the main thread for every lookup.
+            this.key = "file:" + file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+        }
+
+        @NonNull
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @NonNull
+        @Override
+        Bitmap decode(int targetWidth, int targetHeight) throws IOException {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                return decodeWithImageDecoder(ImageDecoder.createSource(file), targetWidth, targetHeight);
+            }
+            String path = file.getAbsolutePath();
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(path, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                throw decodeFailed(getKey());
+            }
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+            options.inJustDecodeBounds = false;
+            Bitmap bitmap = BitmapFactory.decodeFile(path, options);
+            if (bitmap == null) {
+                throw decodeFailed(getKey());
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class UriSource extends UIImageSource {
+        private final ContentResolver contentResolver;
+        private final Uri uri;
+        private final String key;
+
+        UriSource(ContentResolver contentResolver, Uri uri) {
+            this.contentResolver = contentResolver;
+            this.uri = uri;
+            this.key = "uri:" + uri;
+        }
+
+        @NonNull
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @NonNull
+        @Override
+        Bitmap decode(int targetWidth, int targetHeight) throws IOException {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                return decodeWithImageDecoder(ImageDecoder.createSource(contentResolver, uri), targetWidth, targetHeight);
+            }
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            try (InputStream inputStream = openInputStream()) {
+                BitmapFactory.decodeStream(inputStream, null, options);
+            }
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                throw decodeFailed(getKey());
+            }
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+            options.inJustDecodeBounds = false;
+            Bitmap bitmap;
+            try (InputStream inputStream = openInputStream()) {
+                bitmap = BitmapFactory.decodeStream(inputStream, null, options);
+            }
+            if (bitmap == null) {
+                throw decodeFailed(getKey());
+            }
+            return bitmap;
+        }
+
+        private InputStream openInputStream() throws IOException {
+            InputStream inputStream = contentResolver.openInputStream(uri);
+            if (inputStream == null) {
+                throw decodeFailed(getKey());
+            }
+            return inputStream;
+        }
+    }
+
+    private static final class BytesSource extends UIImageSource {
+        private final String id;
+        private final byte[] data;
+
+        BytesSource(String id, byte[] data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        @NonNull
+        @Override
+        public String getKey() {
+            return "bytes:" + id + ':' + data.length;
+        }
+
+        @NonNull
+        @Override
+        Bitmap decode(int targetWidth, int targetHeight) throws IOException {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                return decodeWithImageDecoder(ImageDecoder.createSource(ByteBuffer.wrap(data)), targetWidth, targetHeight);
+            }
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                throw decodeFailed(getKey());
+            }
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+            options.inJustDecodeBounds = false;
+            Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            if (bitmap == null) {
+                throw decodeFailed(getKey());
+            }
+            return bitmap;
+        }
+    }
+}
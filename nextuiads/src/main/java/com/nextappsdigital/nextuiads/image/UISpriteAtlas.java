@@ -0,0 +1,155 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.core.content.ContextCompat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Many small drawables rendered once into a single bitmap grid, e.g. the flags of a language
+ * list. Drawing a sprite is one {@code drawBitmap} from a shared bitmap instead of one decoded
+ * drawable per row, which keeps memory in one block and scrolling free of decodes.
+ */
+public final class UISpriteAtlas {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "UISpriteAtlas");
+        }
+    });
+
+    /**
+     * Receives a built atlas on the main thread.
+     */
+    public interface Callback {
+        void onAtlasReady(@NonNull UISpriteAtlas atlas);
+    }
+
+    private final Bitmap bitmap;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int columns;
+    private final int count;
+    private final Rect spriteRect = new Rect();
+
+    private UISpriteAtlas(Bitmap bitmap, int cellWidth, int cellHeight, int columns, int count) {
+        this.bitmap = bitmap;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.columns = columns;
+        this.count = count;
+    }
+
+    /**
+     * Builds the atlas on a background thread and delivers it on the main thread.
+     *
+     * @param drawables the sprites in index order; 0 leaves a cell empty
+     * @param cellWidth the width every sprite is rendered at, in pixels
+     * @param cellHeight the height every sprite is rendered at, in pixels
+     */
+    public static void build(@NonNull Context context, @NonNull int[] drawables, int cellWidth, int cellHeight, @NonNull Callback callback) {
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            throw new IllegalArgumentException("cellWidth and cellHeight must be positive");
+        }
+        Context applicationContext = context.getApplicationContext();
+        int[] sprites = drawables.clone();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                UISpriteAtlas atlas = create(applicationContext, sprites, cellWidth, cellHeight);
+                if (atlas == null) {
+                    return;
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onAtlasReady(atlas);
+                    }
+                });
+            }
+        });
+    }
+
+    @Nullable
+    @WorkerThread
+    static UISpriteAtlas create(@NonNull Context context, @NonNull @DrawableRes int[] drawables, int cellWidth, int cellHeight) {
+        int count = drawables.length;
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        int rows = Math.max(1, (count + columns - 1) / columns);
+        Bitmap bitmap;
+        try {
+            bitmap = Bitmap.createBitmap(columns * cellWidth, rows * cellHeight, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError e) {
+            return null;
+        }
+        Canvas canvas = new Canvas(bitmap);
+        for (int i = 0; i < count; i++) {
+            if (drawables[i] == 0) {
+                continue;
+            }
+            Drawable drawable = ContextCompat.getDrawable(context, drawables[i]);
+            if (drawable == null) {
+                continue;
+            }
+            int left = (i % columns) * cellWidth;
+            int top = (i / columns) * cellHeight;
+            drawable.setBounds(left, top, left + cellWidth, top + cellHeight);
+            drawable.draw(canvas);
+        }
+        bitmap.prepareToDraw();
+        return new UISpriteAtlas(bitmap, cellWidth, cellHeight, columns, count);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @NonNull
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Copies the bounds of the sprite within {@link #getBitmap()} into {@code out}.
+     */
+    public void getSpriteRect(int index, @NonNull Rect out) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " out of " + count);
+        }
+        int left = (index % columns) * cellWidth;
+        int top = (index / columns) * cellHeight;
+        out.set(left, top, left + cellWidth, top + cellHeight);
+    }
+
+    /**
+     * Draws the sprite into {@code bounds}. Must be called on the main thread.
+     */
+    public void draw(@NonNull Canvas canvas, int index, @NonNull RectF bounds, @Nullable Paint paint) {
+        getSpriteRect(index, spriteRect);
+        canvas.drawBitmap(bitmap, spriteRect, bounds, paint);
+    }
+}
@@ -0,0 +1,177 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StyleRes;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.utils.UIDimens;
+
+import java.util.Arrays;
+
+/**
+ * Draws a divider below every item of a vertical list except the last one, styled by the
+ * {@code dividerType}, {@code dividerColor} and {@code dividerPadding} attributes. All visible
+ * dividers are drawn with a single {@code drawLines} or {@code drawPoints} call per frame from a
+ * reused float buffer.
+ */
+public class UIDividerItemDecoration extends RecyclerView.ItemDecoration {
+
+    public static final int TYPE_LINE = 0;
+    public static final int TYPE_CIRCLE = 1;
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private int dividerType = TYPE_LINE;
+    private int dividerPadding;
+    private int dividerThickness;
+    private float[] buffer = new float[64];
+
+    public UIDividerItemDecoration(@NonNull Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Reads the divider attributes from a layout, e.g. the AttributeSet of the RecyclerView.
+     */
+    public UIDividerItemDecoration(@NonNull Context context, @Nullable AttributeSet attrs) {
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView);
+        initializeAttributes(context, typedArray);
+    }
+
+    /**
+     * Reads the divider attributes from a style resource.
+     */
+    public UIDividerItemDecoration(@NonNull Context context, @StyleRes int styleRes) {
+        TypedArray typedArray = context.obtainStyledAttributes(styleRes, R.styleable.NextView);
+        initializeAttributes(context, typedArray);
+    }
+
+    private void initializeAttributes(Context context, TypedArray typedArray) {
+        dividerType = typedArray.getInt(R.styleable.NextView_dividerType, TYPE_LINE);
+        int color = typedArray.getColor(R.styleable.NextView_dividerColor, ContextCompat.getColor(context, R.color.gnt_outline));
+        dividerPadding = typedArray.getDimensionPixelSize(R.styleable.NextView_dividerPadding, 0);
+        typedArray.recycle();
+
+        dividerThickness = UIDimens.getSize(context, dividerType == TYPE_CIRCLE ? 4 : 1);
+        paint.setColor(color);
+        updatePaint();
+    }
+
+    /**
+     * Returns true when the attributes declare a divider, so a list only adds the decoration when
+     * its layout asks for one.
+     */
+    public static boolean hasDividerAttributes(@NonNull Context context, @Nullable AttributeSet attrs) {
+        if (attrs == null) {
+            return false;
+        }
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView);
+        boolean hasDivider = typedArray.hasValue(R.styleable.NextView_dividerType) || typedArray.hasValue(R.styleable.NextView_dividerColor);
+        typedArray.recycle();
+        return hasDivider;
+    }
+
+    private void updatePaint() {
+        paint.setStrokeWidth(dividerThickness);
+        paint.setStrokeCap(dividerType == TYPE_CIRCLE ? Paint.Cap.ROUND : Paint.Cap.BUTT);
+    }
+
+    public void setDividerType(int type) {
+        if (type != TYPE_LINE && type != TYPE_CIRCLE) {
+            throw new IllegalArgumentException("Unknown divider type " + type);
+        }
+        dividerType = type;
+        updatePaint();
+    }
+
+    public void setDividerColor(@ColorInt int color) {
+        paint.setColor(color);
+    }
+
+    public void setDividerPadding(int padding) {
+        dividerPadding = padding;
+    }
+
+    /**
+     * Sets the line width, or the dot diameter for {@link #TYPE_CIRCLE}, in pixels.
+     */
+    public void setDividerThickness(int thickness) {
+        dividerThickness = thickness;
+        updatePaint();
+    }
+
+    @Override
+    public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        if (hasDividerBelow(parent.getChildAdapterPosition(view), state)) {
+            outRect.set(0, 0, 0, dividerThickness);
+        } else {
+            outRect.setEmpty();
+        }
+    }
+
+    @Override
+    public void onDraw(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        float left = parent.getPaddingLeft() + dividerPadding;
+        float right = parent.getWidth() - parent.getPaddingRight() - dividerPadding;
+        if (right <= left) {
+            return;
+        }
+        float halfThickness = dividerThickness / 2.0f;
+        // Dots are one diameter apart, centered on the available width.
+        float dotSpacing = dividerThickness * 2.0f;
+        int dotsPerRow = dividerType == TYPE_CIRCLE ? Math.max(1, (int) ((right - left) / dotSpacing)) : 0;
+        float dotStart = left + ((right - left) - (dotsPerRow - 1) * dotSpacing) / 2.0f;
+
+        int count = 0;
+        for (int i = 0, childCount = parent.getChildCount(); i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            if (!hasDividerBelow(parent.getChildAdapterPosition(child), state)) {
+                continue;
+            }
+            RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
+            float y = child.getBottom() + params.bottomMargin + child.getTranslationY() + halfThickness;
+            if (dividerType == TYPE_CIRCLE) {
+                ensureCapacity(count + dotsPerRow * 2);
+                for (int dot = 0; dot < dotsPerRow; dot++) {
+                    buffer[count++] = dotStart + dot * dotSpacing;
+                    buffer[count++] = y;
+                }
+            } else {
+                ensureCapacity(count + 4);
+                buffer[count++] = left;
+                buffer[count++] = y;
+                buffer[count++] = right;
+                buffer[count++] = y;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        if (dividerType == TYPE_CIRCLE) {
+            canvas.drawPoints(buffer, 0, count, paint);
+        } else {
+            canvas.drawLines(buffer, 0, count, paint);
+        }
+    }
+
+    private static boolean hasDividerBelow(int position, RecyclerView.State state) {
+        return position != RecyclerView.NO_POSITION && position < state.getItemCount() - 1;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size, buffer.length * 2));
+        }
+    }
+}
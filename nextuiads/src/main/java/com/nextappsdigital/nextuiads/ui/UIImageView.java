@@ -1,28 +1,131 @@
 package com.nextappsdigital.nextuiads.ui;
 
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Build;
 import android.util.AttributeSet;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.AppCompatImageView;
+import androidx.core.widget.ImageViewCompat;
 
-import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UIImageLoader;
+import com.nextappsdigital.nextuiads.image.UIImagePrerenderer;
+import com.nextappsdigital.nextuiads.image.UIImageSource;
 import com.nextappsdigital.nextuiads.utils.CornersF;
 import com.nextappsdigital.nextuiads.utils.UICornersHelper;
+import com.nextappsdigital.nextuiads.utils.UIMetrics;
 
 
 public class UIImageView extends AppCompatImageView {
 
     private final CornersF cornerRadii;
     private final UICornersHelper cornersHelper;
+    private final StyleEditor styleEditor = new StyleEditor();
+    private boolean isBitmapShaderEnabled;
+    private boolean isBitmapShaderPass;
+    private Bitmap shaderBitmap;
+    private BitmapShader bitmapShader;
+    private Paint bitmapShaderPaint;
+    private final Matrix bitmapShaderMatrix = new Matrix();
+    // Set when the drawable bounds or the scaleType matrix may have changed, so the shader
+    // matrix is rebuilt on the next shader pass instead of on every draw.
+    private boolean isShaderMatrixDirty = true;
+    private final RectF bitmapRect = new RectF();
+    private final RectF drawableRect = new RectF();
+    private final ImageLoadTarget imageLoadTarget = new ImageLoadTarget();
+    private UIImageSource imageSource;
+    private UIImageLoader.Request imageRequest;
+    private boolean isImageLoadPending;
+    private final PrerenderCallback prerenderCallback = new PrerenderCallback();
+    private final float[] prerenderRadii = new float[8];
+    private boolean isPrerenderEnabled;
+    private boolean isPrerenderedPass;
+    private boolean isSettingLoadedImage;
+    private Bitmap loadedBitmap;
+    private UIImagePrerenderer.Spec prerenderSpec;
+    private Bitmap prerenderedBitmap;
+
+    private class ImageLoadTarget implements UIImageLoader.Target {
+        @Override
+        public void onImageLoaded(@NonNull Bitmap bitmap) {
+            imageRequest = null;
+            isSettingLoadedImage = true;
+            setImageBitmap(bitmap);
+            isSettingLoadedImage = false;
+            loadedBitmap = bitmap;
+            requestPrerender();
+        }
+
+        @Override
+        public void onImageLoadFailed(@NonNull Exception error) {
+            imageRequest = null;
+        }
+    }
+
+    private class PrerenderCallback implements UIImagePrerenderer.Callback {
+        @Override
+        public void onPrerendered(@NonNull UIImagePrerenderer.Spec spec, @NonNull Bitmap bitmap) {
+            if (spec == prerenderSpec) {
+                prerenderedBitmap = bitmap;
+                invalidate();
+            }
+        }
+    }
+
+    /**
+     * Batches style changes into a single path rebuild, dash effect update and invalidate.
+     * Obtained from {@link #edit()}; every edit must end with {@link #apply()}.
+     */
+    public final class StyleEditor {
+
+        private StyleEditor() {
+        }
+
+        public StyleEditor setCorners(@NonNull CornersF corners) {
+            cornerRadii.set(corners);
+            cornersHelper.setCorners(corners);
+            return this;
+        }
+
+        public StyleEditor setDashPathEffect(float dashWidth, float dashGap) {
+            cornersHelper.setDashPathEffect(dashWidth, dashGap);
+            return this;
+        }
+
+        public StyleEditor setFillColor(@ColorInt int color) {
+            cornersHelper.setFillColor(color);
+            return this;
+        }
+
+        public StyleEditor setStrokeWidth(float width, @ColorInt int color) {
+            cornersHelper.setStrokeWidth(width, color);
+            return this;
+        }
+
+        public void apply() {
+            cornersHelper.endEdit();
+            requestPrerender();
+            invalidate();
+        }
+    }
+
     public UIImageView(Context context) {
-        this(context, null);
+        this(context, (AttributeSet) null);
     }
 
     public UIImageView(Context context, @Nullable AttributeSet attrs) {
@@ -33,40 +136,72 @@ public class UIImageView extends AppCompatImageView {
         super(context, attrs, defStyleAttr);
         cornersHelper = new UICornersHelper();
         cornerRadii = new CornersF();
-        initializeAttributes(context, attrs, defStyleAttr);
+        cornersHelper.setView(this);
+        applyStyle(UIStyle.fromAttributes(context, attrs, defStyleAttr));
     }
-    private void initializeAttributes(Context context, AttributeSet attrs, int defStyleAttr) {
-        @SuppressLint("CustomViewStyleable") TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
-
-        float defaultRadius = typedArray.getDimension(R.styleable.NextView_android_radius, 0.0f);
-        cornerRadii.topLeft = typedArray.getDimension(R.styleable.NextView_android_topLeftRadius, 0.0f);
-        cornerRadii.topRight = typedArray.getDimension(R.styleable.NextView_android_topRightRadius, 0.0f);
-        cornerRadii.bottomLeft = typedArray.getDimension(R.styleable.NextView_android_bottomLeftRadius, 0.0f);
-        cornerRadii.bottomRight = typedArray.getDimension(R.styleable.NextView_android_bottomRightRadius, 0.0f);
 
+    /**
+     * Creates a view styled by a shared {@link UIStyle}, without resolving any attributes.
+     */
+    public UIImageView(Context context, @NonNull UIStyle style) {
+        super(context);
+        cornersHelper = new UICornersHelper();
+        cornerRadii = new CornersF();
         cornersHelper.setView(this);
-        cornersHelper.setCorners(defaultRadius, cornerRadii);
-
-        float strokeWidth = typedArray.getDimension(R.styleable.NextView_uiStrokeWidth, 0.0f);
-        int strokeColor = typedArray.getColor(R.styleable.NextView_uiStrokeColor, 0);
-        cornersHelper.setStrokeWidth(strokeWidth, strokeColor);
-
-        float dashWidth = typedArray.getDimension(R.styleable.NextView_uiDashWidth, 0.0f);
-        float dashGap = typedArray.getDimension(R.styleable.NextView_uiDashGap, 0.0f);
-        cornersHelper.setDashPathEffect(dashWidth, dashGap);
+        applyStyle(style);
+    }
 
-        int fillColor = typedArray.getColor(R.styleable.NextView_uiFillColor, 0);
-        cornersHelper.setFillColor(fillColor);
+    /**
+     * Replaces the corners, stroke, dash and fill with those of the style in a single edit.
+     */
+    public void applyStyle(@NonNull UIStyle style) {
+        style.getCorners(cornerRadii);
+        cornersHelper.beginEdit();
+        cornersHelper.setCorners(style.getRadius(), cornerRadii);
+        cornersHelper.setStrokeWidth(style.getStrokeWidth(), style.getStrokeColor());
+        cornersHelper.setDashPathEffect(style.getDashWidth(), style.getDashGap());
+        cornersHelper.setFillColor(style.getFillColor());
+        cornersHelper.endEdit();
+        cornersHelper.setOutlineClipEnabled(style.isOutlineClipEnabled());
 
-        if (typedArray.hasValue(R.styleable.NextView_willNotDraw)) {
-            setWillNotDraw(typedArray.getBoolean(R.styleable.NextView_willNotDraw, false));
+        if (style.hasWillNotDraw()) {
+            setWillNotDraw(style.getWillNotDraw());
         }
-
-        typedArray.recycle();
+        requestPrerender();
+        invalidate();
     }
 
     @Override
     public void draw(@NonNull Canvas canvas) {
+        if (!UIMetrics.isEnabled()) {
+            drawStyled(canvas);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        drawStyled(canvas);
+        UIMetrics.getInstance().recordDrawDuration(UIMetrics.IMAGE_VIEW_DRAW, System.nanoTime() - startNanos);
+    }
+
+    private void drawStyled(Canvas canvas) {
+        if (canDrawPrerendered()) {
+            // onDraw() draws the finished bitmap; clip, fill and stroke are already baked in.
+            isPrerenderedPass = true;
+            super.draw(canvas);
+            isPrerenderedPass = false;
+            return;
+        }
+        if (!cornersHelper.hasStyle()) {
+            super.draw(canvas);
+            return;
+        }
+        if (canDrawWithBitmapShader()) {
+            // onDraw() paints the bitmap through the rounded path, so no clip is needed.
+            isBitmapShaderPass = true;
+            cornersHelper.drawFillColor(canvas);
+            super.draw(canvas);
+            isBitmapShaderPass = false;
+            return;
+        }
         cornersHelper.startClipping(canvas);
         cornersHelper.drawFillColor(canvas);
         super.draw(canvas);
@@ -74,34 +209,366 @@ public class UIImageView extends AppCompatImageView {
         cornersHelper.endDrawing(canvas);
     }
 
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (isPrerenderedPass) {
+            canvas.drawBitmap(prerenderedBitmap, 0.0f, 0.0f, null);
+        } else if (isBitmapShaderPass) {
+            drawBitmapShader(canvas);
+        } else {
+            super.onDraw(canvas);
+        }
+    }
+
+    /**
+     * Returns true when the content is a plain bitmap covering the whole view and there is no
+     * stroke, so drawing it once through a BitmapShader on the rounded path is identical to
+     * clipping the regular draw.
+     */
+    private boolean canDrawWithBitmapShader() {
+        if (!isBitmapShaderEnabled || cornersHelper.getCornerPath() == null) {
+            return false;
+        }
+        // The clip keeps only the inner half of a stroke; an unclipped stroke would render twice
+        // as thick and spill past rounded corners.
+        if (cornersHelper.getStrokeWidth() > 0.0f) {
+            return false;
+        }
+        Drawable drawable = getDrawable();
+        if (!(drawable instanceof BitmapDrawable)) {
+            return false;
+        }
+        Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+        if (bitmap == null || bitmap.isRecycled()) {
+            return false;
+        }
+        ScaleType scaleType = getScaleType();
+        if (scaleType != ScaleType.CENTER_CROP && scaleType != ScaleType.FIT_XY) {
+            return false;
+        }
+        if (getPaddingLeft() != 0 || getPaddingTop() != 0 || getPaddingRight() != 0 || getPaddingBottom() != 0) {
+            return false;
+        }
+        if (getScrollX() != 0 || getScrollY() != 0 || getBackground() != null) {
+            return false;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && getForeground() != null) {
+            return false;
+        }
+        return ImageViewCompat.getImageTintList(this) == null;
+    }
+
+    private void drawBitmapShader(Canvas canvas) {
+        BitmapDrawable drawable = (BitmapDrawable) getDrawable();
+        Bitmap bitmap = drawable.getBitmap();
+        if (bitmapShader == null || shaderBitmap != bitmap) {
+            shaderBitmap = bitmap;
+            bitmapShader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+            isShaderMatrixDirty = true;
+            if (bitmapShaderPaint == null) {
+                bitmapShaderPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG);
+            }
+            bitmapShaderPaint.setShader(bitmapShader);
+        }
+
+        if (isShaderMatrixDirty) {
+            isShaderMatrixDirty = false;
+            // Same mapping the drawable uses: bitmap to drawable bounds, then the scaleType matrix.
+            Rect bounds = drawable.getBounds();
+            bitmapRect.set(0.0f, 0.0f, bitmap.getWidth(), bitmap.getHeight());
+            drawableRect.set(bounds);
+            bitmapShaderMatrix.setRectToRect(bitmapRect, drawableRect, Matrix.ScaleToFit.FILL);
+            // FIT_XY stretches through the bounds alone; getImageMatrix() would return a new
+            // identity matrix for it.
+            if (getScaleType() != ScaleType.FIT_XY) {
+                bitmapShaderMatrix.postConcat(getImageMatrix());
+            }
+            bitmapShader.setLocalMatrix(bitmapShaderMatrix);
+        }
+
+        bitmapShaderPaint.setAlpha(drawable.getAlpha());
+        bitmapShaderPaint.setColorFilter(getColorFilter());
+        Path cornerPath = cornersHelper.getCornerPath();
+        canvas.drawPath(cornerPath, bitmapShaderPaint);
+    }
+
+    /**
+     * Returns true when the pre-rendered bitmap matches what the regular draw would produce. Size,
+     * scale type and padding are part of the spec, which is rebuilt when they change; the image
+     * matrix only applies to MATRIX, which is never pre-rendered. Paint state that is not baked in
+     * (alpha, tint, color filter, background and foreground) falls back to the regular draw.
+     */
+    private boolean canDrawPrerendered() {
+        if (prerenderedBitmap == null
+                || prerenderSpec.getWidth() != getWidth()
+                || prerenderSpec.getHeight() != getHeight()) {
+            return false;
+        }
+        if (getScrollX() != 0 || getScrollY() != 0 || getBackground() != null) {
+            return false;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && getForeground() != null) {
+            return false;
+        }
+        return getImageAlpha() == 255
+                && getColorFilter() == null
+                && ImageViewCompat.getImageTintList(this) == null;
+    }
+
+    /**
+     * Returns true when the loaded image can be pre-rendered: it covers the whole view with
+     * CENTER_CROP or FIT_XY and the view has no padding.
+     */
+    private boolean canPrerender() {
+        ScaleType scaleType = getScaleType();
+        return isPrerenderEnabled
+                && loadedBitmap != null
+                && imageSource != null
+                && getWidth() > 0 && getHeight() > 0
+                && (scaleType == ScaleType.CENTER_CROP || scaleType == ScaleType.FIT_XY)
+                && getPaddingLeft() == 0 && getPaddingTop() == 0 && getPaddingRight() == 0 && getPaddingBottom() == 0;
+    }
+
+    private void requestPrerender() {
+        if (!canPrerender()) {
+            clearPrerender();
+            return;
+        }
+        cornersHelper.getCornerRadii(prerenderRadii);
+        UIImagePrerenderer.Spec spec = new UIImagePrerenderer.Spec(imageSource.getKey(), getWidth(), getHeight(), prerenderRadii,
+                getScaleType() == ScaleType.FIT_XY, cornersHelper.getFillColor(), cornersHelper.getStrokeColor(),
+                cornersHelper.getStrokeWidth(), cornersHelper.getDashWidth(), cornersHelper.getDashGap());
+        if (prerenderSpec != null && prerenderSpec.getKey().equals(spec.getKey())) {
+            return;
+        }
+        prerenderSpec = spec;
+        prerenderedBitmap = null;
+        UIImagePrerenderer.getInstance().prerender(spec, loadedBitmap, prerenderCallback);
+    }
+
+    private void clearPrerender() {
+        prerenderSpec = null;
+        prerenderedBitmap = null;
+    }
+
+    @Override
+    public void setImageDrawable(@Nullable Drawable drawable) {
+        super.setImageDrawable(drawable);
+        // Called from the super constructor, before the fields are initialized.
+        if (!isSettingLoadedImage) {
+            // A pending load would otherwise replace this drawable when it completes.
+            cancelImageLoad();
+        }
+        loadedBitmap = null;
+        clearPrerender();
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    public void setImageURI(@Nullable Uri uri) {
+        cancelImageLoad();
+        super.setImageURI(uri);
+        loadedBitmap = null;
+        clearPrerender();
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    public void setImageMatrix(Matrix matrix) {
+        super.setImageMatrix(matrix);
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    public void setScaleType(ScaleType scaleType) {
+        super.setScaleType(scaleType);
+        // Called from the super constructor, before the fields are initialized.
+        requestPrerender();
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    public void setPadding(int left, int top, int right, int bottom) {
+        super.setPadding(left, top, right, bottom);
+        requestPrerender();
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    public void setPaddingRelative(int start, int top, int end, int bottom) {
+        super.setPaddingRelative(start, top, end, bottom);
+        requestPrerender();
+        isShaderMatrixDirty = true;
+    }
+
+    @Override
+    protected boolean setFrame(int left, int top, int right, int bottom) {
+        boolean changed = super.setFrame(left, top, right, bottom);
+        // ImageView lays out the drawable bounds and scaleType matrix here.
+        isShaderMatrixDirty = true;
+        return changed;
+    }
+
+    public boolean isPrerenderEnabled() {
+        return isPrerenderEnabled;
+    }
+
+    /**
+     * Pre-renders images loaded through {@link #setImageSource(UIImageSource)} together with their
+     * corners, fill and stroke on a background thread, so each frame is a single drawBitmap. Meant
+     * for static creatives shown repeatedly; while an image alpha, tint, color filter, background
+     * or foreground is set the regular draw is used instead.
+     */
+    public void setPrerenderEnabled(boolean enabled) {
+        if (isPrerenderEnabled != enabled) {
+            isPrerenderEnabled = enabled;
+            requestPrerender();
+            invalidate();
+        }
+    }
+
+    public boolean isOutlineClipEnabled() {
+        return cornersHelper.isOutlineClipEnabled();
+    }
+
+    /**
+     * Clips to the corners through the view outline, applied by the RenderThread instead of a
+     * path clip per draw. While corners are set this replaces the view's outline provider.
+     */
+    public void setOutlineClipEnabled(boolean enabled) {
+        cornersHelper.setOutlineClipEnabled(enabled);
+        invalidate();
+    }
+
+    public boolean isBitmapShaderEnabled() {
+        return isBitmapShaderEnabled;
+    }
+
+    /**
+     * Draws {@link BitmapDrawable} content once through a cached BitmapShader on the rounded path
+     * instead of clipping the canvas. Used only for CENTER_CROP and FIT_XY without padding,
+     * stroke, background, foreground or tint; other content keeps the clipped draw.
+     */
+    public void setBitmapShaderEnabled(boolean enabled) {
+        if (isBitmapShaderEnabled != enabled) {
+            isBitmapShaderEnabled = enabled;
+            if (!enabled) {
+                shaderBitmap = null;
+                bitmapShader = null;
+                bitmapShaderPaint = null;
+            }
+            invalidate();
+        }
+    }
+
     public CornersF getCornerRadius() {
         return cornerRadii;
     }
 
+    /**
+     * Copies the eight radii the corners are drawn with into {@code out}, in the order of
+     * {@link Path#addRoundRect(RectF, float[], Path.Direction)}: {@code android:radius} or the
+     * per-corner radii, mirrored for RTL layouts.
+     */
+    public void getResolvedCornerRadii(@NonNull float[] out) {
+        cornersHelper.getCornerRadii(out);
+    }
+
     @Override
     public void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
         cornersHelper.onLayoutChanged(changed, left, top, right, bottom);
+        if (changed && loadedBitmap != null) {
+            requestPrerender();
+        }
+        if (isImageLoadPending) {
+            startImageLoad();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (isImageLoadPending) {
+            startImageLoad();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (imageRequest != null) {
+            // Resumed from the cache or a new decode if the view is attached again.
+            imageRequest.cancel();
+            imageRequest = null;
+            isImageLoadPending = true;
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Loads the source off the main thread, downsampled to the laid-out content size of this view,
+     * and shows it when ready. Replaces any load in progress; pass null to only cancel.
+     */
+    public void setImageSource(@Nullable UIImageSource source) {
+        cancelImageLoad();
+        imageSource = source;
+        if (source != null) {
+            isImageLoadPending = true;
+            startImageLoad();
+        }
+    }
+
+    @Nullable
+    public UIImageSource getImageSource() {
+        return imageSource;
+    }
+
+    /**
+     * Cancels the load started by {@link #setImageSource(UIImageSource)}, e.g. from
+     * {@code onViewRecycled}. The current drawable is left unchanged.
+     */
+    public void cancelImageLoad() {
+        isImageLoadPending = false;
+        imageSource = null;
+        if (imageRequest != null) {
+            imageRequest.cancel();
+            imageRequest = null;
+        }
+    }
+
+    private void startImageLoad() {
+        int targetWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        int targetHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (imageSource == null || targetWidth <= 0 || targetHeight <= 0 || !isAttachedToWindow()) {
+            // Started again from onLayout() or onAttachedToWindow().
+            return;
+        }
+        isImageLoadPending = false;
+        imageRequest = UIImageLoader.getInstance(getContext()).load(imageSource, targetWidth, targetHeight, imageLoadTarget);
+    }
+
+    /**
+     * Starts a batch of style changes, e.g. when binding a recycled item:
+     * {@code view.edit().setCorners(corners).setFillColor(color).apply()}.
+     */
+    public StyleEditor edit() {
+        cornersHelper.beginEdit();
+        return styleEditor;
     }
 
     public void setCorners(@NonNull CornersF corners) {
-        this.cornerRadii.set(corners);
-        cornersHelper.setCorners(corners);
-        invalidate();
+        edit().setCorners(corners).apply();
     }
 
     public void setDashPathEffect(float dashWidth, float dashGap) {
-        cornersHelper.setDashPathEffect(dashWidth, dashGap);
-        invalidate();
+        edit().setDashPathEffect(dashWidth, dashGap).apply();
     }
 
     public void setFillColor(@ColorInt int color) {
-        cornersHelper.setFillColor(color);
-        invalidate();
+        edit().setFillColor(color).apply();
     }
 
     public void setStrokeWidth(float width, @ColorInt int color) {
-        cornersHelper.setStrokeWidth(width, color);
-        invalidate();
+        edit().setStrokeWidth(width, color).apply();
     }
 }
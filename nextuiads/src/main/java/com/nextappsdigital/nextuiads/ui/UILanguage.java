@@ -0,0 +1,41 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+
+/**
+ * One entry of a {@link UILanguageSelector}: a language code, its display name and its flag.
+ */
+public final class UILanguage {
+
+    private final String code;
+    private final String name;
+    @DrawableRes
+    private final int flag;
+
+    /**
+     * @param code a code unique within the list, e.g. "en" or "pt-BR"
+     * @param name the name shown to the user, usually in the language itself
+     * @param flag the flag drawable, or 0 for none
+     */
+    public UILanguage(@NonNull String code, @NonNull String name, @DrawableRes int flag) {
+        this.code = code;
+        this.name = name;
+        this.flag = flag;
+    }
+
+    @NonNull
+    public String getCode() {
+        return code;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @DrawableRes
+    public int getFlag() {
+        return flag;
+    }
+}
@@ -0,0 +1,197 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UISpriteAtlas;
+import com.nextappsdigital.nextuiads.utils.UIDimens;
+import com.nextappsdigital.nextuiads.utils.UITypefaces;
+
+/**
+ * One row of a language list drawn as a single view: the flag, the name ({@code uiTextLang}) and,
+ * while selected, the {@code uiSelectImageLang} indicator. The flag is drawn from a
+ * {@link UISpriteAtlas} once one is set, and from {@code uiFlagLang} until then.
+ */
+public class UILanguageItemView extends View {
+
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint flagPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF flagRect = new RectF();
+    private final TypefaceCallback typefaceCallback = new TypefaceCallback();
+    private CharSequence text;
+    private CharSequence displayText;
+    private Drawable flagDrawable;
+    private Drawable selectDrawable;
+    private UISpriteAtlas flagAtlas;
+    private int flagIndex = -1;
+    private int flagWidth;
+    private int flagHeight;
+    private int selectSize;
+    private int itemHeight;
+    private int spacing;
+    private float textStart;
+    private float textBaseline;
+
+    public UILanguageItemView(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public UILanguageItemView(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public UILanguageItemView(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initializeAttributes(context, attrs, defStyleAttr);
+    }
+
+    private void initializeAttributes(Context context, AttributeSet attrs, int defStyleAttr) {
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
+        text = typedArray.getText(R.styleable.NextView_uiTextLang);
+        flagDrawable = typedArray.getDrawable(R.styleable.NextView_uiFlagLang);
+        selectDrawable = typedArray.getDrawable(R.styleable.NextView_uiSelectImageLang);
+        typedArray.recycle();
+
+        flagWidth = UIDimens.getSize(context, 32);
+        flagHeight = UIDimens.getSize(context, 24);
+        selectSize = UIDimens.getSize(context, 24);
+        itemHeight = UIDimens.getSize(context, 56);
+        spacing = UIDimens.getSize(context, 16);
+        textPaint.setTextSize(UIDimens.getTextSize(context, 16));
+        textPaint.setColor(ContextCompat.getColor(context, R.color.color_light_primary));
+        if (!isInEditMode()) {
+            UITypefaces.getInstance(context).whenReady(typefaceCallback);
+        }
+        if (getPaddingStart() == 0 && getPaddingEnd() == 0) {
+            setPaddingRelative(spacing, getPaddingTop(), spacing, getPaddingBottom());
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int height = Math.max(itemHeight, flagHeight + getPaddingTop() + getPaddingBottom());
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateTextLayout();
+    }
+
+    /**
+     * Positions the flag, the selection indicator and the ellipsized text for the current size
+     * and layout direction. Runs on size or content changes only, never per frame.
+     */
+    private void updateTextLayout() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        boolean isRtl = getLayoutDirection() == View.LAYOUT_DIRECTION_RTL;
+        int start = getPaddingStart();
+        int end = getPaddingEnd();
+        float flagTop = (height - flagHeight) / 2.0f;
+        float flagLeft = isRtl ? width - start - flagWidth : start;
+        flagRect.set(flagLeft, flagTop, flagLeft + flagWidth, flagTop + flagHeight);
+        if (flagDrawable != null) {
+            flagDrawable.setBounds(Math.round(flagRect.left), Math.round(flagRect.top), Math.round(flagRect.right), Math.round(flagRect.bottom));
+        }
+        if (selectDrawable != null) {
+            int selectTop = (height - selectSize) / 2;
+            int selectLeft = isRtl ? end : width - end - selectSize;
+            selectDrawable.setBounds(selectLeft, selectTop, selectLeft + selectSize, selectTop + selectSize);
+        }
+
+        float textWidth = width - start - end - flagWidth - selectSize - spacing * 2.0f;
+        displayText = text != null && textWidth > 0.0f ? TextUtils.ellipsize(text, textPaint, textWidth, TextUtils.TruncateAt.END) : null;
+        float measured = displayText != null ? textPaint.measureText(displayText, 0, displayText.length()) : 0.0f;
+        textStart = isRtl ? flagRect.left - spacing - measured : flagRect.right + spacing;
+        Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
+        textBaseline = (height - fontMetrics.ascent - fontMetrics.descent) / 2.0f;
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (flagAtlas != null && flagIndex >= 0) {
+            flagAtlas.draw(canvas, flagIndex, flagRect, flagPaint);
+        } else if (flagDrawable != null) {
+            flagDrawable.draw(canvas);
+        }
+        if (displayText != null) {
+            canvas.drawText(displayText, 0, displayText.length(), textStart, textBaseline, textPaint);
+        }
+        if (selectDrawable != null && isSelected()) {
+            selectDrawable.draw(canvas);
+        }
+    }
+
+    public void setText(@Nullable CharSequence text) {
+        if (!TextUtils.equals(this.text, text)) {
+            this.text = text;
+            setContentDescription(text);
+            updateTextLayout();
+            invalidate();
+        }
+    }
+
+    @Nullable
+    public CharSequence getText() {
+        return text;
+    }
+
+    public void setFlagDrawable(@Nullable Drawable drawable) {
+        flagDrawable = drawable;
+        updateTextLayout();
+        invalidate();
+    }
+
+    /**
+     * Draws the flag from the atlas sprite at {@code index} instead of the flag drawable.
+     *
+     * @param atlas the atlas, or null to fall back to the flag drawable
+     */
+    public void setFlagSprite(@Nullable UISpriteAtlas atlas, int index) {
+        if (flagAtlas != atlas || flagIndex != index) {
+            flagAtlas = atlas;
+            flagIndex = atlas != null && index < atlas.getCount() ? index : -1;
+            invalidate();
+        }
+    }
+
+    public void setSelectDrawable(@Nullable Drawable drawable) {
+        selectDrawable = drawable;
+        updateTextLayout();
+        invalidate();
+    }
+
+    /**
+     * Switches the name to the shared medium typeface once it is loaded.
+     */
+    private class TypefaceCallback implements UITypefaces.Callback {
+        @Override
+        public void onTypefacesReady(@NonNull UITypefaces typefaces) {
+            Typeface typeface = typefaces.get(UITypefaces.LATO_MEDIUM);
+            if (typeface != null) {
+                textPaint.setTypeface(typeface);
+                updateTextLayout();
+                invalidate();
+            }
+        }
+    }
+}
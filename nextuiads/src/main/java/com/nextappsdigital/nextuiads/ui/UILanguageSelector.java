@@ -0,0 +1,276 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UISpriteAtlas;
+import com.nextappsdigital.nextuiads.utils.UIDimens;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A searchable single-choice list of languages.
+ * <p>
+ * All flags are rendered once into a {@link UISpriteAtlas} on a background thread, so rows never
+ * decode a drawable while scrolling. Rows have stable ids, filtering is diffed on a background
+ * thread, and a selection change only rebinds the two affected rows.
+ */
+public class UILanguageSelector extends RecyclerView {
+
+    private static final Object PAYLOAD_SELECTION = new Object();
+    private static final Object PAYLOAD_FLAG_ATLAS = new Object();
+
+    /**
+     * Called when the user selects a language.
+     */
+    public interface OnLanguageSelectedListener {
+        void onLanguageSelected(@NonNull UILanguage language);
+    }
+
+    private final LanguageAdapter adapter = new LanguageAdapter();
+    private final HashMap<String, Integer> languageIndices = new HashMap<>();
+    private List<UILanguage> languages = Collections.emptyList();
+    private UISpriteAtlas flagAtlas;
+    private String selectedCode;
+    private String filterQuery = "";
+    private Drawable selectDrawable;
+    private OnLanguageSelectedListener onLanguageSelectedListener;
+
+    public UILanguageSelector(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public UILanguageSelector(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public UILanguageSelector(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
+        selectDrawable = typedArray.getDrawable(R.styleable.NextView_uiSelectImageLang);
+        typedArray.recycle();
+
+        setLayoutManager(new LinearLayoutManager(context));
+        setHasFixedSize(true);
+        if (getItemAnimator() instanceof SimpleItemAnimator) {
+            // Selection changes swap the indicator in place instead of cross-fading the row.
+            ((SimpleItemAnimator) getItemAnimator()).setSupportsChangeAnimations(false);
+        }
+        if (UIDividerItemDecoration.hasDividerAttributes(context, attrs)) {
+            addItemDecoration(new UIDividerItemDecoration(context, attrs));
+        }
+        adapter.setHasStableIds(true);
+        setAdapter(adapter);
+    }
+
+    /**
+     * Replaces the languages and starts building their flag atlas. Codes must be unique.
+     */
+    public void setLanguages(@NonNull List<UILanguage> languages) {
+        this.languages = Collections.unmodifiableList(new ArrayList<>(languages));
+        languageIndices.clear();
+        int[] flags = new int[this.languages.size()];
+        for (int i = 0; i < flags.length; i++) {
+            UILanguage language = this.languages.get(i);
+            if (languageIndices.put(language.getCode(), i) != null) {
+                throw new IllegalArgumentException("Duplicate language code " + language.getCode());
+            }
+            flags[i] = language.getFlag();
+        }
+        flagAtlas = null;
+        submitFilteredList();
+        buildFlagAtlas(this.languages, flags);
+    }
+
+    @NonNull
+    public List<UILanguage> getLanguages() {
+        return languages;
+    }
+
+    private void buildFlagAtlas(List<UILanguage> builtLanguages, int[] flags) {
+        if (flags.length == 0) {
+            return;
+        }
+        int flagWidth = UIDimens.getSize(getContext(), 32);
+        int flagHeight = UIDimens.getSize(getContext(), 24);
+        UISpriteAtlas.build(getContext(), flags, flagWidth, flagHeight, new UISpriteAtlas.Callback() {
+            @Override
+            public void onAtlasReady(@NonNull UISpriteAtlas atlas) {
+                // Ignore atlases of a list that has been replaced since.
+                if (languages == builtLanguages) {
+                    flagAtlas = atlas;
+                    adapter.notifyItemRangeChanged(0, adapter.getItemCount(), PAYLOAD_FLAG_ATLAS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows only languages whose name or code contains the query, ignoring case.
+     */
+    public void setFilter(@Nullable CharSequence query) {
+        String normalized = query != null ? query.toString().trim().toLowerCase(Locale.ROOT) : "";
+        if (!normalized.equals(filterQuery)) {
+            filterQuery = normalized;
+            submitFilteredList();
+        }
+    }
+
+    private void submitFilteredList() {
+        if (filterQuery.isEmpty()) {
+            adapter.submitList(languages);
+            return;
+        }
+        ArrayList<UILanguage> filtered = new ArrayList<>();
+        for (UILanguage language : languages) {
+            if (language.getName().toLowerCase(Locale.ROOT).contains(filterQuery)
+                    || language.getCode().toLowerCase(Locale.ROOT).contains(filterQuery)) {
+                filtered.add(language);
+            }
+        }
+        adapter.submitList(filtered);
+    }
+
+    @Nullable
+    public String getSelectedLanguage() {
+        return selectedCode;
+    }
+
+    /**
+     * Selects the language with the given code, or clears the selection when null.
+     */
+    public void setSelectedLanguage(@Nullable String code) {
+        if (code == null ? selectedCode == null : code.equals(selectedCode)) {
+            return;
+        }
+        String previousCode = selectedCode;
+        selectedCode = code;
+        notifySelectionChanged(previousCode);
+        notifySelectionChanged(code);
+    }
+
+    private void notifySelectionChanged(String code) {
+        if (code == null) {
+            return;
+        }
+        List<UILanguage> shown = adapter.getCurrentList();
+        for (int i = 0, size = shown.size(); i < size; i++) {
+            if (shown.get(i).getCode().equals(code)) {
+                adapter.notifyItemChanged(i, PAYLOAD_SELECTION);
+                return;
+            }
+        }
+    }
+
+    public void setOnLanguageSelectedListener(@Nullable OnLanguageSelectedListener listener) {
+        onLanguageSelectedListener = listener;
+    }
+
+    private static final DiffUtil.ItemCallback<UILanguage> DIFF_CALLBACK = new DiffUtil.ItemCallback<UILanguage>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UILanguage oldItem, @NonNull UILanguage newItem) {
+            return oldItem.getCode().equals(newItem.getCode());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UILanguage oldItem, @NonNull UILanguage newItem) {
+            return oldItem.getName().equals(newItem.getName()) && oldItem.getFlag() == newItem.getFlag();
+        }
+    };
+
+    private final class LanguageAdapter extends ListAdapter<UILanguage, LanguageViewHolder> {
+
+        LanguageAdapter() {
+            super(DIFF_CALLBACK);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            Integer index = languageIndices.get(getItem(position).getCode());
+            return index != null ? index : RecyclerView.NO_ID;
+        }
+
+        @NonNull
+        @Override
+        public LanguageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            UILanguageItemView itemView = new UILanguageItemView(parent.getContext());
+            itemView.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            if (selectDrawable != null && selectDrawable.getConstantState() != null) {
+                itemView.setSelectDrawable(selectDrawable.getConstantState().newDrawable(parent.getResources()).mutate());
+            }
+            return new LanguageViewHolder(itemView);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull LanguageViewHolder holder, int position) {
+            UILanguage language = getItem(position);
+            holder.languageView.setText(language.getName());
+            bindFlag(holder, language);
+            holder.languageView.setSelected(language.getCode().equals(selectedCode));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull LanguageViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            UILanguage language = getItem(position);
+            for (Object payload : payloads) {
+                if (payload == PAYLOAD_SELECTION) {
+                    holder.languageView.setSelected(language.getCode().equals(selectedCode));
+                } else if (payload == PAYLOAD_FLAG_ATLAS) {
+                    bindFlag(holder, language);
+                } else {
+                    onBindViewHolder(holder, position);
+                    return;
+                }
+            }
+        }
+
+        private void bindFlag(LanguageViewHolder holder, UILanguage language) {
+            Integer index = languageIndices.get(language.getCode());
+            holder.languageView.setFlagSprite(flagAtlas, index != null ? index : -1);
+        }
+    }
+
+    private final class LanguageViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        final UILanguageItemView languageView;
+
+        LanguageViewHolder(@NonNull UILanguageItemView languageView) {
+            super(languageView);
+            this.languageView = languageView;
+            languageView.setOnClickListener(this);
+        }
+
+        @Override
+        public void onClick(View view) {
+            int position = getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            UILanguage language = adapter.getCurrentList().get(position);
+            setSelectedLanguage(language.getCode());
+            if (onLanguageSelectedListener != null) {
+                onLanguageSelectedListener.onLanguageSelected(language);
+            }
+        }
+    }
+}
@@ -1,34 +1,54 @@
 package com.nextappsdigital.nextuiads.ui;
 
 
-import android.animation.Animator;
-import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Bitmap;
-import android.graphics.BitmapShader;
+import android.graphics.BlendMode;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.ComposeShader;
 import android.graphics.LinearGradient;
 import android.graphics.Paint;
+import android.graphics.Path;
 import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RecordingCanvas;
 import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
 import android.graphics.Shader;
+import android.os.Build;
 import android.util.AttributeSet;
+import android.view.Display;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
 
+import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.VisibleForTesting;
 
 import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.utils.UIMaskBitmapPool;
+import com.nextappsdigital.nextuiads.utils.UIMetrics;
+import com.nextappsdigital.nextuiads.utils.UIShimmerClock;
+import com.nextappsdigital.nextuiads.utils.UIShimmerShaderCache;
+
+import java.util.Arrays;
 
 
 public class UIShimmerLayout extends FrameLayout {
+    // left, top, right, bottom, then the top-left, top-right, bottom-right and bottom-left radii.
+    private static final int SKELETON_SHAPE_STRIDE = 8;
+
     private boolean isAnimationReversed;
     private boolean isShimmering;
+    private boolean isShimmerPaused;
+    private boolean isAggregatedVisible = true;
+    private long pauseStartNanos;
     private int shimmerAngle;
     private int shimmerAnimationDuration;
     private int shimmerColor;
@@ -37,39 +57,76 @@ public class UIShimmerLayout extends FrameLayout {
     private ViewTreeObserver.OnPreDrawListener preDrawListener;
     private int shimmerOffset;
     private Rect shimmerMaskRect;
-    private Paint shimmerPaint;
-    private ValueAnimator shimmerAnimator;
-    private Bitmap shimmerMaskBitmap;
+    private final Paint shimmerPaint = createShimmerPaint();
+    private final Paint shimmerMaskPaint = createShimmerMaskPaint();
+    private ShimmerFrameCallback shimmerFrameCallback;
     private Bitmap shimmerBitmap;
     private Canvas shimmerCanvas;
+    private LinearGradient shimmerGradient;
+    private boolean isMaskDirty = true;
+    private boolean isHardwareCompositingEnabled = true;
+    private HardwareShimmerCompositor hardwareCompositor;
+    private boolean isSkeletonModeEnabled;
+    private boolean isSkeletonDirty = true;
+    private final Paint skeletonPaint = createSkeletonPaint(Color.BLACK);
+    private final Paint skeletonMaskPaint = createSkeletonPaint(Color.BLACK);
+    private final Paint skeletonShimmerPaint = createSkeletonShimmerPaint();
+    private float[] skeletonShapes = new float[SKELETON_SHAPE_STRIDE * 8];
+    private int skeletonShapeCount;
+    private final Path skeletonPath = new Path();
+    private final RectF skeletonRect = new RectF();
+    private final float[] skeletonRadii = new float[8];
+    private final Rect visibleRect = new Rect();
+    private final ShimmerVisibilityListener visibilityListener = new ShimmerVisibilityListener();
+
+    public UIShimmerLayout(@NonNull Context context) {
+        this(context, (AttributeSet) null);
+    }
 
     public UIShimmerLayout(@NonNull Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
-        initializeShimmer(context, attrs);
+        initializeShimmer(context, attrs, 0);
     }
 
     public UIShimmerLayout(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        initializeShimmer(context, attrs);
-    }
-
-    private void initializeShimmer(Context context, AttributeSet attrs) {
-        if (attrs != null) {
-            setWillNotDraw(false);
-            TypedArray typedArray = context.getTheme().obtainStyledAttributes(attrs, R.styleable.NextView, 0, 0);
-            shimmerAngle = typedArray.getInteger(R.styleable.NextView_uiShimmerAngle, 20);
-            shimmerAnimationDuration = typedArray.getInteger(R.styleable.NextView_uiShimmerAnimationDuration, 1500);
-            shimmerColor = typedArray.getColor(R.styleable.NextView_uiShimmerColor, context.getColor(R.color.default_shimmer_color));
-            isAnimationReversed = typedArray.getBoolean(R.styleable.NextView_uiAnimationReversed, false);
-            maskWidth = typedArray.getFloat(R.styleable.NextView_uiMaskWidth, 0.5f);
-            gradientCenterColorWidth = typedArray.getFloat(R.styleable.NextView_uiGradientCenterColorWidth, 0.1f);
-            setMaskWidth(maskWidth);
-            setGradientCenterColorWidth(gradientCenterColorWidth);
-            setShimmerAngle(shimmerAngle);
-            if (typedArray.getBoolean(R.styleable.NextView_uiShimmer_auto_start, false) && getVisibility() == View.VISIBLE) {
-                startShimmerAnimation();
-            }
-            typedArray.recycle();
+        initializeShimmer(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * Creates a layout styled by a shared {@link UIStyle}, without resolving any attributes.
+     */
+    public UIShimmerLayout(@NonNull Context context, @NonNull UIStyle style) {
+        super(context);
+        applyStyle(style);
+    }
+
+    private void initializeShimmer(Context context, AttributeSet attrs, int defStyleAttr) {
+        // Without attributes this applies the XML defaults, so layouts created in code shimmer too.
+        applyStyle(UIStyle.fromAttributes(context, attrs, defStyleAttr));
+    }
+
+    /**
+     * Replaces the shimmer parameters with those of the style, and starts the shimmer if the
+     * style auto-starts it. A running shimmer is restarted once with the new parameters.
+     */
+    public void applyStyle(@NonNull UIStyle style) {
+        checkMaskWidth(style.getMaskWidth());
+        checkGradientCenterColorWidth(style.getGradientCenterColorWidth());
+        checkShimmerAngle(style.getShimmerAngle());
+        setWillNotDraw(false);
+        shimmerAnimationDuration = style.getShimmerAnimationDuration();
+        shimmerColor = style.getShimmerColor();
+        isAnimationReversed = style.isAnimationReversed();
+        maskWidth = style.getMaskWidth();
+        gradientCenterColorWidth = style.getGradientCenterColorWidth();
+        shimmerAngle = style.getShimmerAngle();
+        setSkeletonModeEnabled(style.isSkeletonModeEnabled());
+        skeletonPaint.setColor(style.getSkeletonColor());
+        if (isShimmering) {
+            resetShimmerEffect();
+        } else if (style.isShimmerAutoStart() && getVisibility() == View.VISIBLE) {
+            startShimmerAnimation();
         }
     }
 
@@ -82,94 +139,351 @@ public class UIShimmerLayout extends FrameLayout {
         }
     }
 
-    private class ShimmerAnimatorUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+    private class ShimmerVisibilityListener implements ViewTreeObserver.OnScrollChangedListener, ViewTreeObserver.OnGlobalLayoutListener {
+        @Override
+        public void onScrollChanged() {
+            updateShimmerPauseState();
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            updateShimmerPauseState();
+        }
+    }
+
+    private class ShimmerFrameCallback implements UIShimmerClock.Callback {
         private final int initialOffset;
         private final int maskWidth;
+        private final int travelDistance;
 
-        ShimmerAnimatorUpdateListener(int initialOffset, int maskWidth) {
+        ShimmerFrameCallback(int initialOffset, int maskWidth, int travelDistance) {
             this.initialOffset = initialOffset;
             this.maskWidth = maskWidth;
+            this.travelDistance = travelDistance;
         }
 
         @Override
-        public void onAnimationUpdate(@NonNull ValueAnimator valueAnimator) {
-            shimmerOffset = initialOffset + (Integer) valueAnimator.getAnimatedValue();
-            if (shimmerOffset + maskWidth >= 0) {
-                invalidate();
+        public void onShimmerFrame(long frameTimeNanos) {
+            float phase = UIShimmerClock.getPhase(frameTimeNanos, shimmerAnimationDuration);
+            // Accelerate/decelerate curve, matching the default ValueAnimator interpolator.
+            float fraction = ((float) (Math.cos((phase + 1.0f) * Math.PI) / 2.0d)) + 0.5f;
+            if (isAnimationReversed) {
+                fraction = 1.0f - fraction;
+            }
+            int previousOffset = shimmerOffset;
+            shimmerOffset = initialOffset + (int) (travelDistance * fraction);
+            if (shimmerOffset != previousOffset && (shimmerOffset + maskWidth >= 0 || previousOffset + maskWidth >= 0)) {
+                invalidateShimmerBand(previousOffset, shimmerOffset, maskWidth);
             }
         }
     }
 
+    /**
+     * Holds the children recorded into a RenderNode that is composited with DST_IN over the shimmer
+     * band, so the gradient is masked on the GPU without rasterizing the children on the CPU.
+     */
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static final class HardwareShimmerCompositor {
+        private final RenderNode contentNode = new RenderNode("UIShimmerLayoutContent");
+        private final Paint contentPaint = new Paint();
+
+        HardwareShimmerCompositor() {
+            contentPaint.setBlendMode(BlendMode.DST_IN);
+            contentNode.setUseCompositingLayer(true, contentPaint);
+        }
+
+        RecordingCanvas beginRecording(int width, int height) {
+            contentNode.setPosition(0, 0, width, height);
+            return contentNode.beginRecording(width, height);
+        }
+
+        void endRecording() {
+            contentNode.endRecording();
+        }
+
+        boolean hasDisplayList() {
+            return contentNode.hasDisplayList();
+        }
+
+        void drawContent(Canvas canvas) {
+            canvas.drawRenderNode(contentNode);
+        }
+
+        void release() {
+            contentNode.discardDisplayList();
+        }
+    }
+
+    /**
+     * Invalidates the union of the band at its previous and current offset. The band is an
+     * axis-aligned rect whose width already includes the slant of {@code shimmerAngle}, so the
+     * union covers every pixel the gradient touched in either frame.
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateShimmerBand(int previousOffset, int currentOffset, int bandWidth) {
+        int left = Math.min(previousOffset, currentOffset);
+        int right = Math.max(previousOffset, currentOffset) + bandWidth;
+        invalidate(Math.max(left, 0), 0, Math.min(right, getWidth()), getHeight());
+    }
+
     private Rect createShimmerMaskRect() {
         return new Rect(0, 0, calculateShimmerMaskWidth(), getHeight());
     }
 
     private int calculateShimmerMaskWidth() {
-        return (int) ((((((double) getWidth()) / 2.0d) * ((double) maskWidth)) / Math.cos(Math.toRadians(Math.abs(shimmerAngle)))) + (((double) getHeight()) * Math.tan(Math.toRadians(Math.abs(shimmerAngle)))));
+        return calculateShimmerMaskWidth(getWidth(), getHeight(), maskWidth, shimmerAngle);
+    }
+
+    @VisibleForTesting
+    static int calculateShimmerMaskWidth(int width, int height, float maskWidth, int shimmerAngle) {
+        return (int) ((((((double) width) / 2.0d) * ((double) maskWidth)) / Math.cos(Math.toRadians(Math.abs(shimmerAngle)))) + (((double) height) * Math.tan(Math.toRadians(Math.abs(shimmerAngle)))));
     }
 
     private Bitmap createBitmapForMask(int width, int height) {
-        try {
-            return Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
-        } catch (OutOfMemoryError e) {
-            return null;
-        }
+        return UIMaskBitmapPool.getInstance().acquire(width, height);
+    }
+
+    private static Paint createShimmerPaint() {
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setDither(true);
+        return paint;
+    }
+
+    private static Paint createShimmerMaskPaint() {
+        Paint paint = new Paint();
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+        return paint;
+    }
+
+    private static Paint createSkeletonPaint(@ColorInt int color) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        return paint;
+    }
+
+    private static Paint createSkeletonShimmerPaint() {
+        Paint paint = createShimmerPaint();
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
+        return paint;
     }
 
     private void initializeShimmerPaint() {
-        if (shimmerPaint == null) {
-            int transparentColor = getTransparentShimmerColor(shimmerColor);
+        if (shimmerGradient == null) {
             float maskWidthAdjusted = (((float) getWidth()) / 2.0f) * maskWidth;
-            float height = shimmerAngle >= 0 ? (float) getHeight() : 0.0f;
-            int shimmerColorValue = shimmerColor;
-            LinearGradient linearGradient = new LinearGradient(0.0f, height, ((float) Math.cos(Math.toRadians(shimmerAngle))) * maskWidthAdjusted, height + (((float) Math.sin(Math.toRadians(shimmerAngle))) * maskWidthAdjusted), new int[]{transparentColor, shimmerColorValue, shimmerColorValue, transparentColor}, getGradientColorDistribution(), Shader.TileMode.CLAMP);
-            Bitmap bitmap = shimmerMaskBitmap;
-            Shader.TileMode tileMode = Shader.TileMode.CLAMP;
-            ComposeShader composeShader = new ComposeShader(linearGradient, new BitmapShader(bitmap, tileMode, tileMode), PorterDuff.Mode.DST_IN);
-            shimmerPaint = new Paint();
-            shimmerPaint.setAntiAlias(true);
-            shimmerPaint.setDither(true);
-            shimmerPaint.setFilterBitmap(true);
-            shimmerPaint.setShader(composeShader);
+            UIShimmerShaderCache shaderCache = UIShimmerShaderCache.getInstance();
+            UIShimmerShaderCache.Key key = new UIShimmerShaderCache.Key(shimmerColor, shimmerAngle, maskWidthAdjusted, gradientCenterColorWidth, getHeight());
+            shimmerGradient = shaderCache.get(key);
+            if (shimmerGradient == null) {
+                shimmerGradient = createShimmerGradient(maskWidthAdjusted);
+                shaderCache.put(key, shimmerGradient);
+            }
+            shimmerPaint.setShader(shimmerGradient);
+            skeletonShimmerPaint.setShader(shimmerGradient);
         }
     }
 
+    private LinearGradient createShimmerGradient(float maskWidthAdjusted) {
+        int transparentColor = getTransparentShimmerColor(shimmerColor);
+        float height = shimmerAngle >= 0 ? (float) getHeight() : 0.0f;
+        int shimmerColorValue = shimmerColor;
+        return new LinearGradient(0.0f, height, ((float) Math.cos(Math.toRadians(shimmerAngle))) * maskWidthAdjusted, height + (((float) Math.sin(Math.toRadians(shimmerAngle))) * maskWidthAdjusted), new int[]{transparentColor, shimmerColorValue, shimmerColorValue, transparentColor}, getGradientColorDistribution(), Shader.TileMode.CLAMP);
+    }
+
     private void dispatchShimmerDraw(Canvas canvas) {
         super.dispatchDraw(canvas);
         Bitmap maskBitmap = getMaskBitmap();
-        shimmerMaskBitmap = maskBitmap;
         if (maskBitmap != null) {
-            if (shimmerCanvas == null) {
-                shimmerCanvas = new Canvas(shimmerMaskBitmap);
+            if (isMaskDirty) {
+                renderChildMask(maskBitmap);
+            }
+            drawShimmerEffect(canvas, maskBitmap);
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private void dispatchHardwareShimmerDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (hardwareCompositor == null) {
+            hardwareCompositor = new HardwareShimmerCompositor();
+        }
+        if (isMaskDirty || !hardwareCompositor.hasDisplayList()) {
+            RecordingCanvas recordingCanvas = hardwareCompositor.beginRecording(getWidth(), getHeight());
+            try {
+                super.dispatchDraw(recordingCanvas);
+            } finally {
+                hardwareCompositor.endRecording();
             }
-            shimmerCanvas.drawColor(0, PorterDuff.Mode.CLEAR);
-            shimmerCanvas.save();
-            shimmerCanvas.translate((float) (-shimmerOffset), 0.0f);
-            super.dispatchDraw(shimmerCanvas);
-            shimmerCanvas.restore();
-            drawShimmerEffect(canvas);
-            shimmerMaskBitmap = null;
+            isMaskDirty = false;
+        }
+        int saveCount = drawShimmerBand(canvas);
+        hardwareCompositor.drawContent(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private boolean shouldUseHardwareCompositing(Canvas canvas) {
+        return isHardwareCompositingEnabled && canvas.isHardwareAccelerated();
+    }
+
+    /**
+     * Renders the children into the cached full-size alpha mask. Only called when a descendant
+     * was invalidated or the layout changed since the last render.
+     */
+    private void renderChildMask(Bitmap maskBitmap) {
+        if (shimmerCanvas == null) {
+            shimmerCanvas = new Canvas(maskBitmap);
         }
+        shimmerCanvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        super.dispatchDraw(shimmerCanvas);
+        // Cleared after drawing so invalidations caused by the mask pass itself are ignored.
+        isMaskDirty = false;
+    }
+
+    private void markMaskDirty() {
+        isMaskDirty = true;
     }
 
     private int getTransparentShimmerColor(int color) {
         return Color.argb(0, Color.red(color), Color.green(color), Color.blue(color));
     }
 
-    private void drawShimmerEffect(Canvas canvas) {
+    private void drawShimmerEffect(Canvas canvas, Bitmap maskBitmap) {
+        int saveCount = drawShimmerBand(canvas);
+        canvas.drawBitmap(maskBitmap, 0.0f, 0.0f, shimmerMaskPaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Opens a layer limited to the current band and draws the gradient into it. The caller then
+     * draws the children mask with DST_IN in view coordinates and restores to the returned count,
+     * which leaves the gradient only where the children are opaque. Allocates nothing per frame.
+     */
+    private int drawShimmerBand(Canvas canvas) {
         initializeShimmerPaint();
-        canvas.save();
-        canvas.translate((float) shimmerOffset, 0.0f);
+        int saveCount = saveShimmerBandLayer(canvas);
+        drawShimmerGradient(canvas, shimmerPaint);
+        return saveCount;
+    }
+
+    private int saveShimmerBandLayer(Canvas canvas) {
+        Rect rect = shimmerMaskRect;
+        float offset = (float) shimmerOffset;
+        return canvas.saveLayer(offset + rect.left, 0.0f, offset + rect.width(), rect.height(), null);
+    }
+
+    private void drawShimmerGradient(Canvas canvas, Paint paint) {
         Rect rect = shimmerMaskRect;
-        canvas.drawRect((float) rect.left, 0.0f, (float) rect.width(), (float) shimmerMaskRect.height(), shimmerPaint);
-        canvas.restore();
+        float offset = (float) shimmerOffset;
+        canvas.translate(offset, 0.0f);
+        canvas.drawRect((float) rect.left, 0.0f, (float) rect.width(), (float) rect.height(), paint);
+        canvas.translate(-offset, 0.0f);
+    }
+
+    /**
+     * Draws the recorded skeleton instead of the children: the shapes in the skeleton color, then
+     * a layer limited to the band holding the shapes with the gradient drawn SRC_IN over them.
+     * Child draw methods are never called while the skeleton is shown.
+     */
+    private void dispatchSkeletonDraw(Canvas canvas) {
+        if (isSkeletonDirty) {
+            recordSkeleton();
+        }
+        initializeShimmerPaint();
+        drawSkeletonShapes(canvas, skeletonPaint);
+        int saveCount = saveShimmerBandLayer(canvas);
+        drawSkeletonShapes(canvas, skeletonMaskPaint);
+        drawShimmerGradient(canvas, skeletonShimmerPaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private void drawSkeletonShapes(Canvas canvas, Paint paint) {
+        float[] shapes = skeletonShapes;
+        for (int i = 0, end = skeletonShapeCount * SKELETON_SHAPE_STRIDE; i < end; i += SKELETON_SHAPE_STRIDE) {
+            float radius = shapes[i + 4];
+            // Shapes with mixed radii are drawn through skeletonPath below.
+            if (radius == shapes[i + 5] && radius == shapes[i + 6] && radius == shapes[i + 7]) {
+                canvas.drawRoundRect(shapes[i], shapes[i + 1], shapes[i + 2], shapes[i + 3], radius, radius, paint);
+            }
+        }
+        if (!skeletonPath.isEmpty()) {
+            canvas.drawPath(skeletonPath, paint);
+        }
+    }
+
+    /**
+     * Walks the children once and records the bounds of every visible leaf view in this layout's
+     * coordinates, with the corner radii of UIImageView leaves.
+     */
+    private void recordSkeleton() {
+        skeletonShapeCount = 0;
+        skeletonPath.rewind();
+        recordSkeletonShapes(this, 0.0f, 0.0f);
+        isSkeletonDirty = false;
+    }
+
+    private void recordSkeletonShapes(ViewGroup parent, float offsetX, float offsetY) {
+        for (int i = 0, count = parent.getChildCount(); i < count; i++) {
+            View child = parent.getChildAt(i);
+            if (child.getVisibility() != View.VISIBLE || child.getWidth() <= 0 || child.getHeight() <= 0) {
+                continue;
+            }
+            float left = offsetX + child.getX();
+            float top = offsetY + child.getY();
+            if (child instanceof ViewGroup && ((ViewGroup) child).getChildCount() > 0) {
+                recordSkeletonShapes((ViewGroup) child, left - child.getScrollX(), top - child.getScrollY());
+            } else {
+                addSkeletonShape(child, left, top, left + child.getWidth(), top + child.getHeight());
+            }
+        }
+    }
+
+    private void addSkeletonShape(View view, float left, float top, float right, float bottom) {
+        int index = skeletonShapeCount * SKELETON_SHAPE_STRIDE;
+        if (index + SKELETON_SHAPE_STRIDE > skeletonShapes.length) {
+            skeletonShapes = Arrays.copyOf(skeletonShapes, skeletonShapes.length * 2);
+        }
+        float[] shapes = skeletonShapes;
+        shapes[index] = left;
+        shapes[index + 1] = top;
+        shapes[index + 2] = right;
+        shapes[index + 3] = bottom;
+        Arrays.fill(shapes, index + 4, index + SKELETON_SHAPE_STRIDE, 0.0f);
+        if (view instanceof UIImageView) {
+            // Resolved radii include android:radius and are already mirrored for RTL.
+            ((UIImageView) view).getResolvedCornerRadii(skeletonRadii);
+            for (int corner = 0; corner < 4; corner++) {
+                shapes[index + 4 + corner] = skeletonRadii[corner * 2];
+            }
+            float radius = shapes[index + 4];
+            if (radius != shapes[index + 5] || radius != shapes[index + 6] || radius != shapes[index + 7]) {
+                addSkeletonPath(shapes, index);
+            }
+        }
+        skeletonShapeCount++;
+    }
+
+    private void addSkeletonPath(float[] shapes, int index) {
+        skeletonRect.set(shapes[index], shapes[index + 1], shapes[index + 2], shapes[index + 3]);
+        for (int corner = 0; corner < 4; corner++) {
+            skeletonRadii[corner * 2] = shapes[index + 4 + corner];
+            skeletonRadii[corner * 2 + 1] = shapes[index + 4 + corner];
+        }
+        skeletonPath.addRoundRect(skeletonRect, skeletonRadii, Path.Direction.CW);
+    }
+
+    private void markSkeletonDirty() {
+        isSkeletonDirty = true;
     }
 
     private void clearShimmerMaskResources() {
         shimmerCanvas = null;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && hardwareCompositor != null) {
+            hardwareCompositor.release();
+        }
+        markMaskDirty();
         Bitmap bitmap = shimmerBitmap;
         if (bitmap != null) {
-            bitmap.recycle();
+            UIMaskBitmapPool.getInstance().release(bitmap);
             shimmerBitmap = null;
         }
     }
@@ -181,13 +495,79 @@ public class UIShimmerLayout extends FrameLayout {
         }
     }
 
+    /**
+     * Returns true when nothing of the shimmer can be seen: the view or an ancestor is not visible,
+     * the window is hidden or unfocused, or the view is scrolled or clipped entirely off-screen.
+     */
+    private boolean shouldPauseShimmer() {
+        return !isAggregatedVisible
+                || getWindowVisibility() != View.VISIBLE
+                || !hasWindowFocus()
+                || !getGlobalVisibleRect(visibleRect);
+    }
+
+    /**
+     * Subscribes to or unsubscribes from the shared clock as the on-screen state changes. The
+     * offset is derived from the clock time, so a resumed shimmer continues in phase.
+     */
+    private void updateShimmerPauseState() {
+        if (!isShimmering || shimmerFrameCallback == null) {
+            return;
+        }
+        boolean shouldPause = shouldPauseShimmer();
+        if (shouldPause == isShimmerPaused) {
+            return;
+        }
+        isShimmerPaused = shouldPause;
+        if (shouldPause) {
+            UIShimmerClock.getInstance().removeCallback(shimmerFrameCallback);
+            markPauseStart();
+        } else {
+            recordSkippedFrames();
+            UIShimmerClock.getInstance().addCallback(shimmerFrameCallback);
+        }
+    }
+
+    private void markPauseStart() {
+        pauseStartNanos = UIMetrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Reports the frames the shimmer would have drawn since it was paused, at the display refresh rate.
+     */
+    private void recordSkippedFrames() {
+        if (pauseStartNanos != 0L && UIMetrics.isEnabled()) {
+            Display display = getDisplay();
+            float refreshRate = display != null ? display.getRefreshRate() : 60.0f;
+            long frameIntervalNanos = (long) (1000000000.0f / Math.max(refreshRate, 1.0f));
+            UIMetrics.getInstance().recordSkippedFrames((System.nanoTime() - pauseStartNanos) / frameIntervalNanos);
+        }
+        pauseStartNanos = 0L;
+    }
+
+    @VisibleForTesting
+    void dispatchShimmerFrame(long frameTimeNanos) {
+        if (shimmerFrameCallback != null) {
+            shimmerFrameCallback.onShimmerFrame(frameTimeNanos);
+        }
+    }
+
+    public boolean isShimmerPaused() {
+        return isShimmerPaused;
+    }
+
     private void stopShimmerAnimation() {
-        if (shimmerAnimator != null) {
-            shimmerAnimator.end();
-            shimmerAnimator.removeAllUpdateListeners();
+        if (shimmerFrameCallback != null) {
+            UIShimmerClock.getInstance().removeCallback(shimmerFrameCallback);
         }
-        shimmerAnimator = null;
-        shimmerPaint = null;
+        shimmerFrameCallback = null;
+        if (isShimmerPaused) {
+            recordSkippedFrames();
+        }
+        isShimmerPaused = false;
+        shimmerGradient = null;
+        shimmerPaint.setShader(null);
+        skeletonShimmerPaint.setShader(null);
         isShimmering = false;
         clearShimmerMaskResources();
     }
@@ -199,8 +579,15 @@ public class UIShimmerLayout extends FrameLayout {
                 getViewTreeObserver().addOnPreDrawListener(preDrawListener);
                 return;
             }
-            getShimmerAnimation().start();
+            ShimmerFrameCallback frameCallback = getShimmerFrameCallback();
             isShimmering = true;
+            isShimmerPaused = shouldPauseShimmer();
+            if (isShimmerPaused) {
+                markPauseStart();
+            } else {
+                UIShimmerClock.getInstance().addCallback(frameCallback);
+            }
+            invalidate();
         }
     }
 
@@ -211,33 +598,84 @@ public class UIShimmerLayout extends FrameLayout {
         stopShimmerAnimation();
     }
 
+    public boolean isHardwareCompositingEnabled() {
+        return isHardwareCompositingEnabled;
+    }
+
+    /**
+     * Selects whether the shimmer is composited on the GPU when the canvas is hardware accelerated
+     * on API 29 and above. When disabled, or on older devices, the bitmap mask path is used.
+     */
+    public void setHardwareCompositingEnabled(boolean enabled) {
+        if (isHardwareCompositingEnabled != enabled) {
+            isHardwareCompositingEnabled = enabled;
+            markMaskDirty();
+            invalidate();
+        }
+    }
+
+    public boolean isSkeletonModeEnabled() {
+        return isSkeletonModeEnabled;
+    }
+
+    /**
+     * Selects skeleton mode, in which the shimmer is drawn over rounded rects recorded from the
+     * leaf views after layout instead of over the rendered children. Cheaper per frame, but the
+     * skeleton only follows view bounds and UIImageView corner radii, not the drawn content.
+     */
+    public void setSkeletonModeEnabled(boolean enabled) {
+        if (isSkeletonModeEnabled != enabled) {
+            isSkeletonModeEnabled = enabled;
+            markSkeletonDirty();
+            markMaskDirty();
+            invalidate();
+        }
+    }
+
+    public void setSkeletonColor(@ColorInt int color) {
+        skeletonPaint.setColor(color);
+        invalidate();
+    }
+
     public void setAnimationReversed(boolean reversed) {
         isAnimationReversed = reversed;
         resetShimmerEffect();
     }
 
     public void setGradientCenterColorWidth(float width) {
-        if (width <= 0.0f || 1.0f <= width) {
-            throw new IllegalArgumentException(String.format("gradientCenterColorWidth value must be higher than %d and less than %d", 0, 1));
-        }
+        checkGradientCenterColorWidth(width);
         gradientCenterColorWidth = width;
         resetShimmerEffect();
     }
 
     public void setMaskWidth(float width) {
-        if (width <= 0.0f || 1.0f < width) {
-            throw new IllegalArgumentException(String.format("maskWidth value must be higher than %d and less or equal to %d", 0, 1));
-        }
+        checkMaskWidth(width);
         maskWidth = width;
         resetShimmerEffect();
     }
 
     public void setShimmerAngle(int angle) {
+        checkShimmerAngle(angle);
+        shimmerAngle = angle;
+        resetShimmerEffect();
+    }
+
+    private static void checkGradientCenterColorWidth(float width) {
+        if (width <= 0.0f || 1.0f <= width) {
+            throw new IllegalArgumentException(String.format("gradientCenterColorWidth value must be higher than %d and less than %d", 0, 1));
+        }
+    }
+
+    private static void checkMaskWidth(float width) {
+        if (width <= 0.0f || 1.0f < width) {
+            throw new IllegalArgumentException(String.format("maskWidth value must be higher than %d and less or equal to %d", 0, 1));
+        }
+    }
+
+    private static void checkShimmerAngle(int angle) {
         if (angle < -45 || 45 < angle) {
             throw new IllegalArgumentException(String.format("shimmerAngle value must be between %d and %d", -45, 45));
         }
-        shimmerAngle = angle;
-        resetShimmerEffect();
     }
 
     public void setShimmerAnimationDuration(int duration) {
@@ -252,29 +690,118 @@ public class UIShimmerLayout extends FrameLayout {
 
     @Override
     protected void dispatchDraw(@NonNull Canvas canvas) {
+        if (!UIMetrics.isEnabled()) {
+            dispatchShimmerLayoutDraw(canvas);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        dispatchShimmerLayoutDraw(canvas);
+        UIMetrics.getInstance().recordDrawDuration(UIMetrics.SHIMMER_LAYOUT_DISPATCH_DRAW, System.nanoTime() - startNanos);
+    }
+
+    private void dispatchShimmerLayoutDraw(Canvas canvas) {
         if (!isShimmering || getWidth() <= 0 || getHeight() <= 0) {
             super.dispatchDraw(canvas);
+        } else if (isSkeletonModeEnabled) {
+            dispatchSkeletonDraw(canvas);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && shouldUseHardwareCompositing(canvas)) {
+            dispatchHardwareShimmerDraw(canvas);
         } else {
             dispatchShimmerDraw(canvas);
         }
     }
 
+    @Override
+    public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
+        super.onDescendantInvalidated(child, target);
+        markMaskDirty();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        markMaskDirty();
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        markMaskDirty();
+        markSkeletonDirty();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w != oldw || h != oldh) {
+            shimmerMaskRect = null;
+            resetShimmerEffect();
+        }
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        markMaskDirty();
+        markSkeletonDirty();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        markMaskDirty();
+        markSkeletonDirty();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        isAggregatedVisible = isVisible;
+        updateShimmerPauseState();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateShimmerPauseState();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        updateShimmerPauseState();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        UIShimmerClock.getInstance().attachPowerSaveMonitor(getContext());
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnScrollChangedListener(visibilityListener);
+        observer.addOnGlobalLayoutListener(visibilityListener);
+    }
+
     @Override
     protected void onDetachedFromWindow() {
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.removeOnScrollChangedListener(visibilityListener);
+        observer.removeOnGlobalLayoutListener(visibilityListener);
         stopShimmerAnimation();
         super.onDetachedFromWindow();
     }
 
     private Bitmap getMaskBitmap() {
         if (shimmerBitmap == null) {
-            shimmerBitmap = createBitmapForMask(shimmerMaskRect.width(), getHeight());
+            shimmerBitmap = createBitmapForMask(getWidth(), getHeight());
+            markMaskDirty();
         }
         return shimmerBitmap;
     }
 
-    private Animator getShimmerAnimation() {
-        if (shimmerAnimator != null) {
-            return shimmerAnimator;
+    private ShimmerFrameCallback getShimmerFrameCallback() {
+        if (shimmerFrameCallback != null) {
+            return shimmerFrameCallback;
         }
 
         if (shimmerMaskRect == null) {
@@ -286,20 +813,19 @@ public class UIShimmerLayout extends FrameLayout {
         int maskWidth = shimmerMaskRect.width();
         int finalOffset = width - initialOffset;
 
-        ValueAnimator animator = ValueAnimator.ofInt(isAnimationReversed ? finalOffset : 0, isAnimationReversed ? 0 : finalOffset);
-        shimmerAnimator = animator;
-        animator.setDuration(shimmerAnimationDuration);
-        shimmerAnimator.setRepeatCount(ValueAnimator.INFINITE);
-        shimmerAnimator.addUpdateListener(new ShimmerAnimatorUpdateListener(initialOffset, maskWidth));
-
-        return shimmerAnimator;
+        shimmerFrameCallback = new ShimmerFrameCallback(initialOffset, maskWidth, finalOffset);
+        return shimmerFrameCallback;
     }
 
     private float[] getGradientColorDistribution() {
+        return getGradientColorDistribution(gradientCenterColorWidth);
+    }
+
+    @VisibleForTesting
+    static float[] getGradientColorDistribution(float centerWidth) {
         float[] distribution = new float[4];
         distribution[0] = 0.0f;
         distribution[3] = 1.0f;
-        float centerWidth = gradientCenterColorWidth;
         distribution[1] = 0.5f - (centerWidth / 2.0f);
         distribution[2] = (centerWidth / 2.0f) + 0.5f;
         return distribution;
@@ -0,0 +1,270 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StyleRes;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.utils.CornersF;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The {@code NextView} attributes of a {@link UIImageView} or {@link UIShimmerLayout}, parsed once:
+ * corners, stroke, dash, fill and shimmer parameters. Styles from {@link #fromStyle(Context, int)}
+ * are cached per style resource, theme and configuration, so views created in an adapter with
+ * {@code new UIImageView(context, style)} skip attribute resolution entirely. Themes are held
+ * weakly, so the styles of a destroyed Activity are dropped with its theme.
+ * <p>
+ * Instances are immutable and can be shared between views.
+ */
+public final class UIStyle {
+
+    // Per theme.
+    private static final int MAX_CACHED_STYLES = 32;
+
+    private static final WeakHashMap<Resources.Theme, LinkedHashMap<Key, UIStyle>> cache = new WeakHashMap<>();
+
+    private final float radius;
+    private final float topLeftRadius;
+    private final float topRightRadius;
+    private final float bottomLeftRadius;
+    private final float bottomRightRadius;
+    private final float strokeWidth;
+    @ColorInt
+    private final int strokeColor;
+    private final float dashWidth;
+    private final float dashGap;
+    @ColorInt
+    private final int fillColor;
+    private final boolean isOutlineClipEnabled;
+    private final boolean hasWillNotDraw;
+    private final boolean willNotDraw;
+    private final int shimmerAngle;
+    private final int shimmerAnimationDuration;
+    @ColorInt
+    private final int shimmerColor;
+    private final boolean isAnimationReversed;
+    private final float maskWidth;
+    private final float gradientCenterColorWidth;
+    private final boolean isSkeletonModeEnabled;
+    @ColorInt
+    private final int skeletonColor;
+    private final boolean isShimmerAutoStart;
+
+    private UIStyle(Context context, TypedArray typedArray) {
+        radius = typedArray.getDimension(R.styleable.NextView_android_radius, 0.0f);
+        topLeftRadius = typedArray.getDimension(R.styleable.NextView_android_topLeftRadius, 0.0f);
+        topRightRadius = typedArray.getDimension(R.styleable.NextView_android_topRightRadius, 0.0f);
+        bottomLeftRadius = typedArray.getDimension(R.styleable.NextView_android_bottomLeftRadius, 0.0f);
+        bottomRightRadius = typedArray.getDimension(R.styleable.NextView_android_bottomRightRadius, 0.0f);
+        strokeWidth = typedArray.getDimension(R.styleable.NextView_uiStrokeWidth, 0.0f);
+        strokeColor = typedArray.getColor(R.styleable.NextView_uiStrokeColor, 0);
+        dashWidth = typedArray.getDimension(R.styleable.NextView_uiDashWidth, 0.0f);
+        dashGap = typedArray.getDimension(R.styleable.NextView_uiDashGap, 0.0f);
+        fillColor = typedArray.getColor(R.styleable.NextView_uiFillColor, 0);
+        isOutlineClipEnabled = typedArray.getBoolean(R.styleable.NextView_uiOutlineClip, false);
+        hasWillNotDraw = typedArray.hasValue(R.styleable.NextView_willNotDraw);
+        willNotDraw = typedArray.getBoolean(R.styleable.NextView_willNotDraw, false);
+
+        shimmerAngle = typedArray.getInteger(R.styleable.NextView_uiShimmerAngle, 20);
+        shimmerAnimationDuration = typedArray.getInteger(R.styleable.NextView_uiShimmerAnimationDuration, 1500);
+        shimmerColor = typedArray.getColor(R.styleable.NextView_uiShimmerColor, context.getColor(R.color.default_shimmer_color));
+        isAnimationReversed = typedArray.getBoolean(R.styleable.NextView_uiAnimationReversed, false);
+        maskWidth = typedArray.getFloat(R.styleable.NextView_uiMaskWidth, 0.5f);
+        gradientCenterColorWidth = typedArray.getFloat(R.styleable.NextView_uiGradientCenterColorWidth, 0.1f);
+        isSkeletonModeEnabled = typedArray.getBoolean(R.styleable.NextView_uiShimmerSkeletonMode, false);
+        skeletonColor = typedArray.getColor(R.styleable.NextView_uiShimmerSkeletonColor, context.getColor(R.color.shimmer_background_color));
+        isShimmerAutoStart = typedArray.getBoolean(R.styleable.NextView_uiShimmer_auto_start, false);
+    }
+
+    /**
+     * Returns the style defined by the style resource, parsing it on first use.
+     */
+    @NonNull
+    public static UIStyle fromStyle(@NonNull Context context, @StyleRes int styleRes) {
+        Resources.Theme theme = context.getTheme();
+        Key key = new Key(styleRes, context.getResources().getConfiguration());
+        synchronized (cache) {
+            LinkedHashMap<Key, UIStyle> themeStyles = cache.get(theme);
+            UIStyle style = themeStyles != null ? themeStyles.get(key) : null;
+            if (style != null) {
+                return style;
+            }
+        }
+        @SuppressLint("CustomViewStyleable") TypedArray typedArray = context.obtainStyledAttributes(styleRes, R.styleable.NextView);
+        UIStyle style = new UIStyle(context, typedArray);
+        typedArray.recycle();
+        synchronized (cache) {
+            LinkedHashMap<Key, UIStyle> themeStyles = cache.get(theme);
+            if (themeStyles == null) {
+                themeStyles = new LinkedHashMap<Key, UIStyle>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, UIStyle> eldest) {
+                        return size() > MAX_CACHED_STYLES;
+                    }
+                };
+                cache.put(theme, themeStyles);
+            }
+            themeStyles.put(key.copy(), style);
+        }
+        return style;
+    }
+
+    /**
+     * Parses the attributes of one view. The result is not cached, as attribute sets are per view.
+     */
+    @NonNull
+    public static UIStyle fromAttributes(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        @SuppressLint("CustomViewStyleable") TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
+        UIStyle style = new UIStyle(context, typedArray);
+        typedArray.recycle();
+        return style;
+    }
+
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the radius applied to all corners, or 0 to use the per-corner radii.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Copies the per-corner radii into {@code outCorners}.
+     */
+    public void getCorners(@NonNull CornersF outCorners) {
+        outCorners.topLeft = topLeftRadius;
+        outCorners.topRight = topRightRadius;
+        outCorners.bottomLeft = bottomLeftRadius;
+        outCorners.bottomRight = bottomRightRadius;
+    }
+
+    public float getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    @ColorInt
+    public int getStrokeColor() {
+        return strokeColor;
+    }
+
+    public float getDashWidth() {
+        return dashWidth;
+    }
+
+    public float getDashGap() {
+        return dashGap;
+    }
+
+    @ColorInt
+    public int getFillColor() {
+        return fillColor;
+    }
+
+    public boolean isOutlineClipEnabled() {
+        return isOutlineClipEnabled;
+    }
+
+    /**
+     * Returns true if the style sets {@code willNotDraw}; otherwise the view keeps its default.
+     */
+    public boolean hasWillNotDraw() {
+        return hasWillNotDraw;
+    }
+
+    public boolean getWillNotDraw() {
+        return willNotDraw;
+    }
+
+    public int getShimmerAngle() {
+        return shimmerAngle;
+    }
+
+    public int getShimmerAnimationDuration() {
+        return shimmerAnimationDuration;
+    }
+
+    @ColorInt
+    public int getShimmerColor() {
+        return shimmerColor;
+    }
+
+    public boolean isAnimationReversed() {
+        return isAnimationReversed;
+    }
+
+    public float getMaskWidth() {
+        return maskWidth;
+    }
+
+    public float getGradientCenterColorWidth() {
+        return gradientCenterColorWidth;
+    }
+
+    public boolean isSkeletonModeEnabled() {
+        return isSkeletonModeEnabled;
+    }
+
+    @ColorInt
+    public int getSkeletonColor() {
+        return skeletonColor;
+    }
+
+    public boolean isShimmerAutoStart() {
+        return isShimmerAutoStart;
+    }
+
+    /**
+     * Identifies a parsed style within a theme by the configuration it was resolved in, as any
+     * resource qualifier (smallest width, orientation, locale, night mode) can change its values.
+     */
+    private static final class Key {
+        private final int styleRes;
+        private final Configuration configuration;
+
+        /**
+         * Lookup keys reference the live configuration; keys stored in the cache hold a copy.
+         */
+        Key(int styleRes, Configuration configuration) {
+            this.styleRes = styleRes;
+            this.configuration = configuration;
+        }
+
+        Key copy() {
+            return new Key(styleRes, new Configuration(configuration));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return styleRes == key.styleRes && configuration.equals(key.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * styleRes + configuration.hashCode();
+        }
+    }
+}
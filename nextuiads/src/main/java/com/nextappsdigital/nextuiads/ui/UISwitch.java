@@ -0,0 +1,593 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.animation.AnimationUtils;
+import android.widget.Checkable;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.utils.CornersF;
+import com.nextappsdigital.nextuiads.utils.UICornersHelper;
+import com.nextappsdigital.nextuiads.utils.UIDimens;
+import com.nextappsdigital.nextuiads.utils.UIPathCache;
+import com.nextappsdigital.nextuiads.utils.UITypefaces;
+
+import java.util.Arrays;
+
+/**
+ * A switch drawn entirely in one {@link #onDraw(Canvas)}: track, thumb, the on/off labels and the
+ * optional thumb images. The track and thumb paths come from the shared path cache, the label
+ * layouts are built once per text and size, and the toggle animation allocates nothing per frame.
+ */
+public class UISwitch extends View implements Checkable {
+
+    private static final long TOGGLE_DURATION_MILLIS = 200L;
+    private static final float THUMB_INSET_FRACTION = 0.1f;
+    private static final float LABEL_PADDING_FRACTION = 0.35f;
+    private static final int DISABLED_ALPHA = 128;
+    private static final int[] CHECKED_STATE_SET = {android.R.attr.state_checked};
+
+    /**
+     * Called when the checked state changes through a click or {@link #setChecked(boolean)}.
+     */
+    public interface OnCheckedChangeListener {
+        void onCheckedChanged(@NonNull UISwitch view, boolean isChecked);
+    }
+
+    private final UICornersHelper trackHelper = new UICornersHelper();
+    private final CornersF trackCorners = new CornersF();
+    // The track color changes every animation frame, so it is set on this paint rather than
+    // through the helper's fill color, which reallocates its paint after a transparent color.
+    private final Paint trackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint labelOnPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint labelOffPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final float[] thumbRadii = new float[8];
+    private final ToggleAnimation toggleAnimation = new ToggleAnimation();
+    private final TypefaceCallback typefaceCallback = new TypefaceCallback();
+    private Path thumbPath;
+    private CharSequence labelOn;
+    private CharSequence labelOff;
+    private StaticLayout labelOnLayout;
+    private StaticLayout labelOffLayout;
+    private Drawable imageOn;
+    private Drawable imageOff;
+    private boolean isImageShown;
+    private int switchHeight;
+    @ColorInt
+    private int trackOnColor;
+    @ColorInt
+    private int trackOffColor;
+    private boolean isChecked;
+    private boolean isBroadcasting;
+    private float thumbProgress;
+    private float thumbSize;
+    private float thumbInset;
+    private OnCheckedChangeListener onCheckedChangeListener;
+
+    public UISwitch(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public UISwitch(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public UISwitch(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initializeAttributes(context, attrs, defStyleAttr);
+    }
+
+    private void initializeAttributes(Context context, AttributeSet attrs, int defStyleAttr) {
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.NextView, defStyleAttr, 0);
+        labelOn = typedArray.getText(R.styleable.NextView_uiSwitch_label_on);
+        labelOff = typedArray.getText(R.styleable.NextView_uiSwitch_label_off);
+        isImageShown = typedArray.getBoolean(R.styleable.NextView_uiSwitch_show_image, false);
+        imageOn = typedArray.getDrawable(R.styleable.NextView_uiSwitch_image_on);
+        imageOff = typedArray.getDrawable(R.styleable.NextView_uiSwitch_image_off);
+        switchHeight = typedArray.getDimensionPixelSize(R.styleable.NextView_uiSwitch_height,
+                UIDimens.getSize(context, 28));
+        boolean isDisabled = typedArray.getBoolean(R.styleable.NextView_uiSwitch_disabled, false);
+        typedArray.recycle();
+        attachImage(imageOn);
+        attachImage(imageOff);
+
+        trackOnColor = ContextCompat.getColor(context, R.color.color_active_selected);
+        trackOffColor = ContextCompat.getColor(context, R.color.grey_20);
+        thumbPaint.setColor(Color.WHITE);
+        labelOnPaint.setColor(Color.WHITE);
+        labelOffPaint.setColor(ContextCompat.getColor(context, R.color.grey_60));
+        trackHelper.setView(this);
+        if (!isInEditMode()) {
+            UITypefaces.getInstance(context).whenReady(typefaceCallback);
+        }
+
+        setClickable(true);
+        setFocusable(true);
+        setEnabled(!isDisabled);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int height = resolveSize(switchHeight, heightMeasureSpec);
+        float textSize = height * 0.4f;
+        float labelWidth = Math.max(measureLabel(labelOn, textSize), measureLabel(labelOff, textSize));
+        // The thumb plus its inset on both sides is as wide as the track is high.
+        float labelArea = labelWidth > 0.0f ? labelWidth + height * LABEL_PADDING_FRACTION * 2.0f : 0.0f;
+        int desiredWidth = (int) Math.ceil(Math.max(height * 2.0f, height + labelArea));
+        setMeasuredDimension(resolveSize(desiredWidth, widthMeasureSpec), height);
+    }
+
+    private float measureLabel(CharSequence label, float textSize) {
+        if (label == null || label.length() == 0) {
+            return 0.0f;
+        }
+        labelOnPaint.setTextSize(textSize);
+        return labelOnPaint.measureText(label, 0, label.length());
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        float radius = h / 2.0f;
+        trackCorners.set(radius, radius, radius, radius);
+        trackHelper.setCorners(trackCorners);
+        trackHelper.onLayoutChanged(true, 0, 0, w, h);
+
+        thumbInset = h * THUMB_INSET_FRACTION;
+        thumbSize = h - thumbInset * 2.0f;
+        Arrays.fill(thumbRadii, thumbSize / 2.0f);
+        thumbPath = UIPathCache.getInstance().obtainRoundRect(thumbSize, thumbSize, thumbRadii);
+
+        float textSize = h * 0.4f;
+        labelOnPaint.setTextSize(textSize);
+        labelOffPaint.setTextSize(textSize);
+        buildLabelLayouts();
+        updateImageBounds();
+    }
+
+    private void buildLabelLayouts() {
+        int labelWidth = (int) (getWidth() - thumbSize - thumbInset * 2.0f);
+        labelOnLayout = createLabelLayout(labelOn, labelOnPaint, labelWidth);
+        labelOffLayout = createLabelLayout(labelOff, labelOffPaint, labelWidth);
+    }
+
+    @Nullable
+    private static StaticLayout createLabelLayout(CharSequence label, TextPaint paint, int width) {
+        if (label == null || label.length() == 0 || width <= 0) {
+            return null;
+        }
+        return StaticLayout.Builder.obtain(label, 0, label.length(), paint, width)
+                .setAlignment(Layout.Alignment.ALIGN_CENTER)
+                .setMaxLines(1)
+                .setIncludePad(false)
+                .build();
+    }
+
+    private void updateImageBounds() {
+        int imageInset = Math.round(thumbSize * 0.2f);
+        int imageSize = Math.round(thumbSize) - imageInset * 2;
+        if (imageOn != null) {
+            imageOn.setBounds(imageInset, imageInset, imageInset + imageSize, imageInset + imageSize);
+        }
+        if (imageOff != null) {
+            imageOff.setBounds(imageInset, imageInset, imageInset + imageSize, imageInset + imageSize);
+        }
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (thumbPath == null) {
+            return;
+        }
+        float progress = thumbProgress;
+        boolean isEnabled = isEnabled();
+        Path trackPath = trackHelper.getCornerPath();
+        if (trackPath != null) {
+            trackPaint.setColor(blendColors(trackOffColor, trackOnColor, progress));
+            canvas.drawPath(trackPath, trackPaint);
+        }
+
+        float travel = getWidth() - thumbSize - thumbInset * 2.0f;
+        // The thumb moves towards the end edge, mirrored in RTL layouts.
+        boolean isRtl = getLayoutDirection() == LAYOUT_DIRECTION_RTL;
+        float thumbLeft = isRtl ? thumbInset + travel * (1.0f - progress) : thumbInset + travel * progress;
+        // The on label sits before the thumb when checked, the off label after it when not.
+        float startLabelLeft = isRtl ? thumbInset + thumbSize : thumbInset;
+        float endLabelLeft = isRtl ? thumbInset : thumbInset + thumbSize;
+        drawLabel(canvas, labelOnLayout, labelOnPaint, startLabelLeft, progress);
+        drawLabel(canvas, labelOffLayout, labelOffPaint, endLabelLeft, 1.0f - progress);
+
+        thumbPaint.setAlpha(isEnabled ? 255 : DISABLED_ALPHA);
+        int saveCount = canvas.save();
+        canvas.translate(thumbLeft, thumbInset);
+        canvas.drawPath(thumbPath, thumbPaint);
+        if (isImageShown) {
+            Drawable image = progress >= 0.5f ? imageOn : imageOff;
+            if (image != null) {
+                image.setAlpha(isEnabled ? 255 : DISABLED_ALPHA);
+                image.draw(canvas);
+            }
+        }
+        canvas.restoreToCount(saveCount);
+    }
+
+    private void drawLabel(Canvas canvas, StaticLayout layout, TextPaint paint, float left, float alpha) {
+        if (layout == null || alpha <= 0.0f) {
+            return;
+        }
+        paint.setAlpha(Math.round(255 * alpha * (isEnabled() ? 1.0f : 0.5f)));
+        int saveCount = canvas.save();
+        canvas.translate(left, (getHeight() - layout.getHeight()) / 2.0f);
+        layout.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    @ColorInt
+    private static int blendColors(@ColorInt int from, @ColorInt int to, float fraction) {
+        float inverse = 1.0f - fraction;
+        int alpha = Math.round(Color.alpha(from) * inverse + Color.alpha(to) * fraction);
+        int red = Math.round(Color.red(from) * inverse + Color.red(to) * fraction);
+        int green = Math.round(Color.green(from) * inverse + Color.green(to) * fraction);
+        int blue = Math.round(Color.blue(from) * inverse + Color.blue(to) * fraction);
+        return Color.argb(alpha, red, green, blue);
+    }
+
+    @Override
+    public boolean performClick() {
+        if (isEnabled()) {
+            animateChecked(!isChecked);
+        }
+        return super.performClick();
+    }
+
+    @Override
+    public boolean isChecked() {
+        return isChecked;
+    }
+
+    /**
+     * Sets the checked state without animating the thumb.
+     */
+    @Override
+    public void setChecked(boolean checked) {
+        toggleAnimation.cancel();
+        thumbProgress = checked ? 1.0f : 0.0f;
+        updateChecked(checked);
+        invalidate();
+    }
+
+    @Override
+    public void toggle() {
+        animateChecked(!isChecked);
+    }
+
+    private void animateChecked(boolean checked) {
+        if (isChecked == checked) {
+            return;
+        }
+        updateChecked(checked);
+        if (isLaidOut() && isAttachedToWindow()) {
+            toggleAnimation.start(checked ? 1.0f : 0.0f);
+        } else {
+            thumbProgress = checked ? 1.0f : 0.0f;
+            invalidate();
+        }
+    }
+
+    private void updateChecked(boolean checked) {
+        if (isChecked == checked) {
+            return;
+        }
+        isChecked = checked;
+        refreshDrawableState();
+        sendAccessibilityEvent(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
+        // Guards against listeners that call setChecked() back.
+        if (isBroadcasting) {
+            return;
+        }
+        isBroadcasting = true;
+        if (onCheckedChangeListener != null) {
+            onCheckedChangeListener.onCheckedChanged(this, checked);
+        }
+        isBroadcasting = false;
+    }
+
+    public void setOnCheckedChangeListener(@Nullable OnCheckedChangeListener listener) {
+        onCheckedChangeListener = listener;
+    }
+
+    public void setLabels(@Nullable CharSequence on, @Nullable CharSequence off) {
+        labelOn = on;
+        labelOff = off;
+        requestLayout();
+        if (getWidth() > 0) {
+            buildLabelLayouts();
+        }
+        invalidate();
+    }
+
+    public void setImages(@Nullable Drawable on, @Nullable Drawable off) {
+        detachImage(imageOn);
+        detachImage(imageOff);
+        imageOn = on;
+        imageOff = off;
+        attachImage(on);
+        attachImage(off);
+        isImageShown = on != null || off != null;
+        updateImageBounds();
+        invalidate();
+    }
+
+    /**
+     * Lets stateful and animated thumb images invalidate the switch and follow its checked,
+     * pressed and enabled state.
+     */
+    private void attachImage(Drawable image) {
+        if (image == null) {
+            return;
+        }
+        image.setCallback(this);
+        image.setLayoutDirection(getLayoutDirection());
+        if (image.isStateful()) {
+            image.setState(getDrawableState());
+        }
+        image.setVisible(getWindowVisibility() == VISIBLE && isShown(), false);
+    }
+
+    private void detachImage(Drawable image) {
+        if (image != null) {
+            image.setVisible(false, false);
+            image.setCallback(null);
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == imageOn || who == imageOff || super.verifyDrawable(who);
+    }
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable drawable) {
+        if (drawable == imageOn || drawable == imageOff) {
+            // The images are drawn translated with the thumb, so their bounds are not the dirty rect.
+            invalidate();
+        } else {
+            super.invalidateDrawable(drawable);
+        }
+    }
+
+    @Override
+    protected int[] onCreateDrawableState(int extraSpace) {
+        int[] drawableState = super.onCreateDrawableState(extraSpace + 1);
+        if (isChecked) {
+            mergeDrawableStates(drawableState, CHECKED_STATE_SET);
+        }
+        return drawableState;
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        int[] drawableState = getDrawableState();
+        boolean isChanged = false;
+        if (imageOn != null && imageOn.isStateful()) {
+            isChanged = imageOn.setState(drawableState);
+        }
+        if (imageOff != null && imageOff.isStateful()) {
+            isChanged |= imageOff.setState(drawableState);
+        }
+        if (isChanged) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void jumpDrawablesToCurrentState() {
+        super.jumpDrawablesToCurrentState();
+        if (imageOn != null) {
+            imageOn.jumpToCurrentState();
+        }
+        if (imageOff != null) {
+            imageOff.jumpToCurrentState();
+        }
+    }
+
+    @Override
+    protected void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (imageOn != null) {
+            imageOn.setVisible(isVisible, false);
+        }
+        if (imageOff != null) {
+            imageOff.setVisible(isVisible, false);
+        }
+    }
+
+    public void setTrackColors(@ColorInt int offColor, @ColorInt int onColor) {
+        trackOffColor = offColor;
+        trackOnColor = onColor;
+        invalidate();
+    }
+
+    @Override
+    public void onRtlPropertiesChanged(int layoutDirection) {
+        super.onRtlPropertiesChanged(layoutDirection);
+        invalidate();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (toggleAnimation.isRunning()) {
+            toggleAnimation.cancel();
+            thumbProgress = isChecked ? 1.0f : 0.0f;
+        }
+        super.onDetachedFromWindow();
+    }
+
+    @Nullable
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.isChecked = isChecked;
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(@Nullable Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        setChecked(savedState.isChecked);
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return android.widget.Switch.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setCheckable(true);
+        info.setChecked(isChecked);
+        CharSequence label = isChecked ? labelOn : labelOff;
+        if (label != null) {
+            info.setText(label);
+        }
+    }
+
+    /**
+     * Switches the labels to the shared bold typeface once it is loaded.
+     */
+    private class TypefaceCallback implements UITypefaces.Callback {
+        @Override
+        public void onTypefacesReady(@NonNull UITypefaces typefaces) {
+            Typeface typeface = typefaces.get(UITypefaces.LATO_BOLD);
+            if (typeface == null) {
+                return;
+            }
+            labelOnPaint.setTypeface(typeface);
+            labelOffPaint.setTypeface(typeface);
+            requestLayout();
+            if (getWidth() > 0) {
+                buildLabelLayouts();
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * The checked state, restored when the switch is recreated, e.g. after a configuration change.
+     */
+    static class SavedState extends BaseSavedState {
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel parcel) {
+                return new SavedState(parcel);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+
+        boolean isChecked;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel parcel) {
+            super(parcel);
+            isChecked = parcel.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(@NonNull Parcel parcel, int flags) {
+            super.writeToParcel(parcel, flags);
+            parcel.writeInt(isChecked ? 1 : 0);
+        }
+    }
+
+    /**
+     * Moves the thumb towards a target on the animation clock, reusing itself as the frame
+     * runnable so a toggle allocates nothing.
+     */
+    private class ToggleAnimation implements Runnable {
+        private float startProgress;
+        private float targetProgress;
+        private long startTimeMillis;
+        private boolean isRunning;
+
+        void start(float target) {
+            startProgress = thumbProgress;
+            targetProgress = target;
+            startTimeMillis = AnimationUtils.currentAnimationTimeMillis();
+            if (!isRunning) {
+                isRunning = true;
+                postOnAnimation(this);
+            }
+        }
+
+        void cancel() {
+            if (isRunning) {
+                isRunning = false;
+                removeCallbacks(this);
+            }
+        }
+
+        boolean isRunning() {
+            return isRunning;
+        }
+
+        @Override
+        public void run() {
+            if (!isRunning) {
+                return;
+            }
+            long elapsed = AnimationUtils.currentAnimationTimeMillis() - startTimeMillis;
+            float fraction = Math.min(1.0f, (float) elapsed / (float) TOGGLE_DURATION_MILLIS);
+            // Decelerate, so the thumb settles softly into place.
+            float eased = 1.0f - (1.0f - fraction) * (1.0f - fraction);
+            thumbProgress = startProgress + (targetProgress - startProgress) * eased;
+            invalidate();
+            if (fraction < 1.0f) {
+                postOnAnimation(this);
+            } else {
+                isRunning = false;
+            }
+        }
+    }
+}
@@ -2,14 +2,18 @@ package com.nextappsdigital.nextuiads.utils;
 
 import android.graphics.Canvas;
 import android.graphics.DashPathEffect;
+import android.graphics.Outline;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.RectF;
+import android.os.Build;
 import android.view.View;
+import android.view.ViewOutlineProvider;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import java.util.Arrays;
 
@@ -19,21 +23,74 @@ public class UICornersHelper {
     private Paint borderPaint;
     private float dashGap;
     private float dashWidth;
+    private DashPathEffect dashPathEffect;
+    private final float[] dashIntervals = new float[2];
+    private int editDepth;
+    private boolean isPathDirty;
+    private boolean isDashDirty;
     private boolean isClipEnabled = false;
     private boolean isRtlLayout;
     private Path cornerPath;
     private float[] cornerRadii;
     private RectF viewRect;
+    private View view;
+    private boolean isOutlineClipEnabled;
+    private boolean isOutlineClipping;
+    // The view's own outline state, restored when outline clipping stops.
+    private ViewOutlineProvider previousOutlineProvider;
+    private boolean previousClipToOutline;
+    private final ViewOutlineProvider outlineProvider = new ViewOutlineProvider() {
+        @Override
+        public void getOutline(View view, Outline outline) {
+            if (cornerRadii == null || viewRect == null) {
+                outline.setRect(0, 0, view.getWidth(), view.getHeight());
+            } else if (hasUniformRadius()) {
+                outline.setRoundRect(0, 0, view.getWidth(), view.getHeight(), cornerRadii[0]);
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                outline.setPath(cornerPath);
+            }
+        }
+    };
 
     public UICornersHelper() {
         // Initialize paint objects
-        backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        backgroundPaint.setDither(true);
-        backgroundPaint.setStyle(Paint.Style.FILL);
+        backgroundPaint = createPaint(Paint.Style.FILL);
+        borderPaint = createPaint(Paint.Style.STROKE);
+    }
 
-        borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        borderPaint.setDither(true);
-        borderPaint.setStyle(Paint.Style.STROKE);
+    private static Paint createPaint(Paint.Style style) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setDither(true);
+        paint.setStyle(style);
+        return paint;
+    }
+
+    /**
+     * Starts a batch of style changes. Path rebuilds and dash effect updates are deferred until
+     * the matching {@link #endEdit()}, so several setters cost one rebuild. Calls may be nested.
+     */
+    public void beginEdit() {
+        editDepth++;
+    }
+
+    /**
+     * Ends a batch started with {@link #beginEdit()} and applies the deferred changes once.
+     */
+    public void endEdit() {
+        if (editDepth == 0) {
+            throw new IllegalStateException("endEdit() called without beginEdit()");
+        }
+        editDepth--;
+        if (editDepth == 0) {
+            if (isPathDirty) {
+                isPathDirty = false;
+                updateCornerPath();
+            }
+            if (isDashDirty) {
+                isDashDirty = false;
+                updateDashPathEffect();
+            }
+        }
     }
 
     private void initializeParameters() {
@@ -79,12 +136,20 @@ public class UICornersHelper {
     public void onLayoutChanged(boolean isChanged, int left, int top, int right, int bottom) {
         if (isChanged) {
             initializeParameters();
-            try {
-                viewRect.set(0.0f, 0.0f, (float) (right - left), (float) (bottom - top));
-                cornerPath.reset();
-                cornerPath.addRoundRect(viewRect, cornerRadii, Path.Direction.CW);
-            } catch (Throwable ignored) {
-            }
+            viewRect.set(0.0f, 0.0f, (float) (right - left), (float) (bottom - top));
+            rebuildCornerPath();
+            updateOutlineClipping();
+        }
+    }
+
+    /**
+     * Points cornerPath at the shared path for the current size and radii. The radii are already
+     * resolved for the layout direction, so RTL views share paths with mirrored LTR shapes.
+     */
+    private void rebuildCornerPath() {
+        try {
+            cornerPath = UIPathCache.getInstance().obtainRoundRect(viewRect.width(), viewRect.height(), cornerRadii);
+        } catch (Throwable ignored) {
         }
     }
 
@@ -95,18 +160,41 @@ public class UICornersHelper {
     public void setDashPathEffect(float dashWidth, float dashGap) {
         this.dashWidth = dashWidth;
         this.dashGap = dashGap;
+        if (editDepth > 0) {
+            isDashDirty = true;
+        } else {
+            updateDashPathEffect();
+        }
+    }
+
+    private void updateDashPathEffect() {
         if (borderPaint == null) {
             return;
         }
         if (dashWidth <= 0.0f || dashGap <= 0.0f) {
             borderPaint.setPathEffect(null);
         } else {
-            borderPaint.setPathEffect(new DashPathEffect(new float[]{dashWidth, dashGap}, 0.0f));
+            borderPaint.setPathEffect(obtainDashPathEffect());
         }
     }
 
+    /**
+     * Returns the dash effect for the current width and gap, reusing the last one when unchanged.
+     */
+    private DashPathEffect obtainDashPathEffect() {
+        if (dashPathEffect == null || dashIntervals[0] != dashWidth || dashIntervals[1] != dashGap) {
+            dashIntervals[0] = dashWidth;
+            dashIntervals[1] = dashGap;
+            dashPathEffect = new DashPathEffect(dashIntervals, 0.0f);
+        }
+        return dashPathEffect;
+    }
+
     public void setFillColor(@ColorInt int color) {
         if (color != 0) {
+            if (backgroundPaint == null) {
+                backgroundPaint = createPaint(Paint.Style.FILL);
+            }
             backgroundPaint.setColor(color);
         } else {
             backgroundPaint = null;
@@ -115,11 +203,16 @@ public class UICornersHelper {
 
     public void setStrokeWidth(float strokeWidth, @ColorInt int color) {
         if (strokeWidth > 0.0f) {
+            if (borderPaint == null) {
+                borderPaint = createPaint(Paint.Style.STROKE);
+            }
             borderPaint.setColor(color);
             borderPaint.setStrokeWidth(strokeWidth * 2.0f);
 
-            if (dashWidth > 0.0f && dashGap > 0.0f) {
-                borderPaint.setPathEffect(new DashPathEffect(new float[]{dashWidth, dashGap}, 0.0f));
+            if (editDepth > 0) {
+                isDashDirty = true;
+            } else {
+                updateDashPathEffect();
             }
         } else {
             borderPaint = null;
@@ -127,12 +220,131 @@ public class UICornersHelper {
     }
 
     public void setView(@Nullable View view) {
+        this.view = view;
         if (view != null) {
             this.isRtlLayout = view.getLayoutDirection() == View.LAYOUT_DIRECTION_RTL;
         }
     }
 
+    /**
+     * Enables clipping through the view outline, which the RenderThread applies in hardware. It is
+     * used for uniform radii, and for any radii on API 33+ where path outlines can clip; other shapes
+     * and software canvases keep the path clip. Disabled by default, as it replaces the view's
+     * outline provider while corners are set; the previous provider is restored afterwards.
+     */
+    public void setOutlineClipEnabled(boolean enabled) {
+        if (isOutlineClipEnabled != enabled) {
+            isOutlineClipEnabled = enabled;
+            updateOutlineClipping();
+        }
+    }
+
+    public boolean isOutlineClipEnabled() {
+        return isOutlineClipEnabled;
+    }
+
+    @Nullable
+    public Path getCornerPath() {
+        return cornerPath;
+    }
+
+    /**
+     * Copies the eight resolved corner radii into {@code out}, or zeros if no corners are set.
+     */
+    public void getCornerRadii(@NonNull float[] out) {
+        if (cornerRadii == null) {
+            Arrays.fill(out, 0.0f);
+        } else {
+            System.arraycopy(cornerRadii, 0, out, 0, cornerRadii.length);
+        }
+    }
+
+    @ColorInt
+    public int getFillColor() {
+        return backgroundPaint != null ? backgroundPaint.getColor() : 0;
+    }
+
+    @ColorInt
+    public int getStrokeColor() {
+        return borderPaint != null ? borderPaint.getColor() : 0;
+    }
+
+    public float getStrokeWidth() {
+        return borderPaint != null ? borderPaint.getStrokeWidth() / 2.0f : 0.0f;
+    }
+
+    public float getDashWidth() {
+        return dashWidth;
+    }
+
+    public float getDashGap() {
+        return dashGap;
+    }
+
+    public boolean hasCorners() {
+        if (cornerRadii == null) {
+            return false;
+        }
+        for (float radius : cornerRadii) {
+            if (radius > 0.0f) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns false when no radius, fill or stroke is set, in which case drawing through the
+     * helper has no visible effect and can be skipped.
+     */
+    public boolean hasStyle() {
+        return backgroundPaint != null || borderPaint != null || hasCorners();
+    }
+
+    public boolean isOutlineClipping() {
+        return isOutlineClipping;
+    }
+
+    private boolean hasUniformRadius() {
+        float radius = cornerRadii[0];
+        for (int i = 1; i < cornerRadii.length; i++) {
+            if (cornerRadii[i] != radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateOutlineClipping() {
+        if (view == null || cornerRadii == null) {
+            return;
+        }
+        boolean useOutline = isOutlineClipEnabled && hasCorners()
+                && (hasUniformRadius() || Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU);
+        if (useOutline == isOutlineClipping) {
+            if (useOutline) {
+                view.invalidateOutline();
+            }
+            return;
+        }
+        isOutlineClipping = useOutline;
+        if (useOutline) {
+            previousOutlineProvider = view.getOutlineProvider();
+            previousClipToOutline = view.getClipToOutline();
+            view.setOutlineProvider(outlineProvider);
+            view.setClipToOutline(true);
+        } else {
+            view.setClipToOutline(previousClipToOutline);
+            view.setOutlineProvider(previousOutlineProvider);
+            previousOutlineProvider = null;
+        }
+    }
+
     public void startClipping(Canvas canvas) {
+        // Outlines only clip when rendered by the RenderThread.
+        if (isOutlineClipping && canvas.isHardwareAccelerated()) {
+            return;
+        }
         if (cornerPath != null) {
             try {
                 canvas.save();
@@ -145,6 +357,21 @@ public class UICornersHelper {
 
     public void setCorners(float defaultRadius, @NonNull CornersF radii) {
         initializeParameters();
+        resolveCornerRadii(defaultRadius, radii, isRtlLayout, cornerRadii);
+
+        if (editDepth > 0) {
+            isPathDirty = true;
+        } else {
+            updateCornerPath();
+        }
+    }
+
+    /**
+     * Maps per-corner radii, or a default radius for all corners, to the eight values expected by
+     * {@link Path#addRoundRect(RectF, float[], Path.Direction)}, mirrored for RTL layouts.
+     */
+    @VisibleForTesting
+    static void resolveCornerRadii(float defaultRadius, @NonNull CornersF radii, boolean isRtlLayout, @NonNull float[] cornerRadii) {
         float topLeft = radii.topLeft;
         float topRight = radii.topRight;
         float bottomLeft = radii.bottomLeft;
@@ -171,13 +398,12 @@ public class UICornersHelper {
                 cornerRadii[isRtlLayout ? 5 : 7] = bottomLeft;
             }
         }
+    }
 
+    private void updateCornerPath() {
         if (viewRect != null && !viewRect.isEmpty()) {
-            try {
-                cornerPath.reset();
-                cornerPath.addRoundRect(viewRect, cornerRadii, Path.Direction.CW);
-            } catch (Throwable ignored) {
-            }
+            rebuildCornerPath();
         }
+        updateOutlineClipping();
     }
 }
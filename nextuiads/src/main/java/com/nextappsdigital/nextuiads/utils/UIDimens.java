@@ -0,0 +1,145 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Scaled dp and sp sizes for the current screen, computed instead of looked up in per-bucket
+ * dimens tables. A size is scaled by the factor of the {@code smallestScreenWidthDp} bucket
+ * (1x below 480dp, then 1.5x, 2x, 3x and 4x from 480, 600, 720 and 800dp) and converted to
+ * pixels. Sizes up to {@link #MAX_CACHED_SIZE} and text sizes up to {@link #MAX_CACHED_TEXT_SIZE}
+ * are cached in a float array per configuration.
+ * <p>
+ * The {@code ui_*} dimens and the {@code UIAds.*} styles used by layouts follow the same factors.
+ */
+public final class UIDimens {
+
+    public static final int MAX_CACHED_SIZE = 600;
+    public static final int MAX_CACHED_TEXT_SIZE = 100;
+
+    private static volatile Table table;
+
+    private UIDimens() {
+    }
+
+    /**
+     * Returns the scale factor applied to sizes on a screen with the given smallest width.
+     */
+    public static float getScale(int smallestScreenWidthDp) {
+        if (smallestScreenWidthDp >= 800) {
+            return 4.0f;
+        } else if (smallestScreenWidthDp >= 720) {
+            return 3.0f;
+        } else if (smallestScreenWidthDp >= 600) {
+            return 2.0f;
+        } else if (smallestScreenWidthDp >= 480) {
+            return 1.5f;
+        }
+        return 1.0f;
+    }
+
+    /**
+     * Returns the scaled size in pixels, rounded like {@code getDimensionPixelSize}.
+     */
+    public static int getSize(@NonNull Context context, int dp) {
+        return toPixelSize(getSizeExact(context, dp));
+    }
+
+    /**
+     * Returns the scaled size in unrounded pixels.
+     */
+    public static float getSizeExact(@NonNull Context context, int dp) {
+        if (dp < 0) {
+            throw new IllegalArgumentException("dp must not be negative");
+        }
+        Table current = getTable(context);
+        if (dp > MAX_CACHED_SIZE) {
+            return current.computeSize(dp);
+        }
+        float size = current.sizes[dp];
+        if (size < 0.0f) {
+            size = current.computeSize(dp);
+            current.sizes[dp] = size;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the scaled text size in pixels, including the user's font scale.
+     */
+    public static float getTextSize(@NonNull Context context, int sp) {
+        if (sp < 0) {
+            throw new IllegalArgumentException("sp must not be negative");
+        }
+        Table current = getTable(context);
+        if (sp > MAX_CACHED_TEXT_SIZE) {
+            return current.computeTextSize(sp);
+        }
+        float size = current.textSizes[sp];
+        if (size < 0.0f) {
+            size = current.computeTextSize(sp);
+            current.textSizes[sp] = size;
+        }
+        return size;
+    }
+
+    private static int toPixelSize(float size) {
+        int pixels = (int) (size + 0.5f);
+        return pixels != 0 || size == 0.0f ? pixels : 1;
+    }
+
+    private static Table getTable(Context context) {
+        Configuration configuration = context.getResources().getConfiguration();
+        Table current = table;
+        if (current == null || !current.matches(configuration)) {
+            current = new Table(configuration, context.getResources().getDisplayMetrics());
+            table = current;
+        }
+        return current;
+    }
+
+    /**
+     * The sizes of one configuration. Entries are filled lazily and -1 while not computed yet;
+     * concurrent fills write the same value, so the arrays need no locking.
+     */
+    private static final class Table {
+        final int smallestScreenWidthDp;
+        final int densityDpi;
+        final float fontScale;
+        final DisplayMetrics displayMetrics;
+        final float scale;
+        final float[] sizes = new float[MAX_CACHED_SIZE + 1];
+        final float[] textSizes = new float[MAX_CACHED_TEXT_SIZE + 1];
+
+        Table(Configuration configuration, DisplayMetrics displayMetrics) {
+            smallestScreenWidthDp = configuration.smallestScreenWidthDp;
+            densityDpi = configuration.densityDpi;
+            fontScale = configuration.fontScale;
+            this.displayMetrics = new DisplayMetrics();
+            this.displayMetrics.setTo(displayMetrics);
+            scale = getScale(smallestScreenWidthDp);
+            Arrays.fill(sizes, -1.0f);
+            Arrays.fill(textSizes, -1.0f);
+        }
+
+        boolean matches(Configuration configuration) {
+            return smallestScreenWidthDp == configuration.smallestScreenWidthDp
+                    && densityDpi == configuration.densityDpi
+                    && Float.compare(fontScale, configuration.fontScale) == 0;
+        }
+
+        float computeSize(int dp) {
+            return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp * scale, displayMetrics);
+        }
+
+        float computeTextSize(int sp) {
+            return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, sp * scale, displayMetrics);
+        }
+    }
+}
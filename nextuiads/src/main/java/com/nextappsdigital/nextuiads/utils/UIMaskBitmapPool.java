@@ -0,0 +1,139 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * A process-wide pool of ALPHA_8 mask bitmaps. Bitmaps are allocated in size buckets so a
+ * returned mask can be reconfigured for any size in the same bucket, and the pool keeps at
+ * most {@link #getMaxPoolBytes()} of idle bitmaps, evicting the least recently returned first.
+ */
+public final class UIMaskBitmapPool {
+
+    private static final int BUCKET_SIZE = 64;
+    private static final int DEFAULT_MAX_POOL_BYTES = 4 * 1024 * 1024;
+
+    private static UIMaskBitmapPool instance;
+
+    // Ordered from least to most recently returned.
+    private final ArrayList<Bitmap> pooledBitmaps = new ArrayList<>();
+    private int maxPoolBytes = DEFAULT_MAX_POOL_BYTES;
+    private int pooledBytes;
+    private int acquiredBytes;
+
+    private UIMaskBitmapPool() {
+    }
+
+    @NonNull
+    public static synchronized UIMaskBitmapPool getInstance() {
+        if (instance == null) {
+            instance = new UIMaskBitmapPool();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a mask bitmap of exactly the given size, reusing a pooled one from the same bucket
+     * when available. The content of a reused bitmap is undefined and must be cleared by the caller.
+     *
+     * @return the bitmap, or null if it could not be allocated
+     */
+    @Nullable
+    public synchronized Bitmap acquire(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        int bucketWidth = roundUpToBucket(width);
+        int bucketHeight = roundUpToBucket(height);
+        int bucketBytes = bucketWidth * bucketHeight;
+
+        for (int i = pooledBitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = pooledBitmaps.get(i);
+            if (bitmap.getAllocationByteCount() == bucketBytes) {
+                pooledBitmaps.remove(i);
+                pooledBytes -= bucketBytes;
+                try {
+                    bitmap.reconfigure(width, height, Bitmap.Config.ALPHA_8);
+                    acquiredBytes += bucketBytes;
+                    return bitmap;
+                } catch (IllegalArgumentException e) {
+                    bitmap.recycle();
+                }
+            }
+        }
+
+        try {
+            Bitmap bitmap = Bitmap.createBitmap(bucketWidth, bucketHeight, Bitmap.Config.ALPHA_8);
+            bitmap.reconfigure(width, height, Bitmap.Config.ALPHA_8);
+            acquiredBytes += bucketBytes;
+            if (UIMetrics.isEnabled()) {
+                UIMetrics.getInstance().recordMaskAllocation(bucketBytes);
+            }
+            return bitmap;
+        } catch (OutOfMemoryError | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a bitmap obtained from {@link #acquire(int, int)} to the pool. The caller must not
+     * use the bitmap afterwards.
+     */
+    public synchronized void release(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int bytes = bitmap.getAllocationByteCount();
+        acquiredBytes = Math.max(0, acquiredBytes - bytes);
+        if (bitmap.getConfig() != Bitmap.Config.ALPHA_8 || !bitmap.isMutable() || bytes > maxPoolBytes) {
+            bitmap.recycle();
+            return;
+        }
+        pooledBitmaps.add(bitmap);
+        pooledBytes += bytes;
+        trimToSize(maxPoolBytes);
+    }
+
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    public synchronized int getMaxPoolBytes() {
+        return maxPoolBytes;
+    }
+
+    public synchronized int getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Returns the bytes of bitmaps handed out by {@link #acquire(int, int)} and not yet released.
+     */
+    public synchronized int getAcquiredBytes() {
+        return acquiredBytes;
+    }
+
+    public synchronized void setMaxPoolBytes(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        maxPoolBytes = maxBytes;
+        trimToSize(maxBytes);
+    }
+
+    private static int roundUpToBucket(int size) {
+        return ((size + BUCKET_SIZE - 1) / BUCKET_SIZE) * BUCKET_SIZE;
+    }
+
+    private void trimToSize(int maxBytes) {
+        while (pooledBytes > maxBytes && !pooledBitmaps.isEmpty()) {
+            Bitmap evicted = pooledBitmaps.remove(0);
+            pooledBytes -= evicted.getAllocationByteCount();
+            evicted.recycle();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An opt-in registry of rendering metrics for the library widgets. It is disabled by default;
+ * while disabled every recording site costs one static field read, so it can stay in release
+ * builds and be enabled for a sample of sessions.
+ * <p>
+ * Gauges such as live shimmer animators and pooled mask bytes are read when a snapshot is taken.
+ * Counters and draw histograms accumulate from the moment metrics are enabled until {@link #reset()}.
+ */
+@MainThread
+public final class UIMetrics {
+
+    /** Histogram name of {@code UIShimmerLayout.dispatchDraw()}. */
+    public static final String SHIMMER_LAYOUT_DISPATCH_DRAW = "UIShimmerLayout.dispatchDraw";
+    /** Histogram name of {@code UIImageView.draw()}. */
+    public static final String IMAGE_VIEW_DRAW = "UIImageView.draw";
+
+    private static final long DEFAULT_REPORT_INTERVAL_MILLIS = 60000L;
+
+    private static UIMetrics instance;
+    private static boolean isEnabled;
+
+    /**
+     * Receives periodic snapshots on the main thread while metrics are enabled.
+     */
+    public interface Listener {
+        void onMetricsSnapshot(@NonNull Snapshot snapshot);
+    }
+
+    /**
+     * Draw durations in exponential buckets from 0.5 ms up to 32 ms, plus an overflow bucket.
+     */
+    public static final class Histogram {
+        private static final long[] BUCKET_UPPER_BOUNDS_NANOS = {
+                500000L, 1000000L, 2000000L, 4000000L, 8000000L, 16000000L, 32000000L, Long.MAX_VALUE
+        };
+
+        private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_NANOS.length];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Histogram() {
+        }
+
+        Histogram(@NonNull Histogram histogram) {
+            System.arraycopy(histogram.bucketCounts, 0, bucketCounts, 0, bucketCounts.length);
+            count = histogram.count;
+            totalNanos = histogram.totalNanos;
+            maxNanos = histogram.maxNanos;
+        }
+
+        void record(long durationNanos) {
+            int bucket = 0;
+            while (durationNanos > BUCKET_UPPER_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            bucketCounts[bucket]++;
+            count++;
+            totalNanos += durationNanos;
+            if (durationNanos > maxNanos) {
+                maxNanos = durationNanos;
+            }
+        }
+
+        public int getBucketCount() {
+            return bucketCounts.length;
+        }
+
+        /**
+         * Returns the inclusive upper bound of the bucket; the last bucket is unbounded.
+         */
+        public long getBucketUpperBoundNanos(int bucket) {
+            return BUCKET_UPPER_BOUNDS_NANOS[bucket];
+        }
+
+        public long getBucketSampleCount(int bucket) {
+            return bucketCounts[bucket];
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeanNanos() {
+            return count > 0 ? totalNanos / count : 0L;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given fraction of samples, capped at
+         * the largest recorded duration.
+         *
+         * @param fraction the percentile as a fraction in the range [0, 1]
+         */
+        public long getPercentileNanos(float fraction) {
+            if (count == 0) {
+                return 0L;
+            }
+            long threshold = (long) Math.ceil(fraction * count);
+            long seen = 0L;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= threshold) {
+                    return Math.min(BUCKET_UPPER_BOUNDS_NANOS[i], maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+    /**
+     * An immutable copy of the metrics at one point in time.
+     */
+    public static final class Snapshot {
+        private final long uptimeMillis;
+        private final int liveShimmerAnimators;
+        private final long maskBytesAllocated;
+        private final int maskBytesInUse;
+        private final int maskBytesPooled;
+        private final long pathRebuildCount;
+        private final long skippedFrameCount;
+        private final Map<String, Histogram> drawHistograms;
+
+        Snapshot(long uptimeMillis, int liveShimmerAnimators, long maskBytesAllocated, int maskBytesInUse, int maskBytesPooled,
+                 long pathRebuildCount, long skippedFrameCount, Map<String, Histogram> drawHistograms) {
+            this.uptimeMillis = uptimeMillis;
+            this.liveShimmerAnimators = liveShimmerAnimators;
+            this.maskBytesAllocated = maskBytesAllocated;
+            this.maskBytesInUse = maskBytesInUse;
+            this.maskBytesPooled = maskBytesPooled;
+            this.pathRebuildCount = pathRebuildCount;
+            this.skippedFrameCount = skippedFrameCount;
+            this.drawHistograms = drawHistograms;
+        }
+
+        public long getUptimeMillis() {
+            return uptimeMillis;
+        }
+
+        /**
+         * Returns the number of shimmer views currently subscribed to the frame clock.
+         */
+        public int getLiveShimmerAnimators() {
+            return liveShimmerAnimators;
+        }
+
+        /**
+         * Returns the bytes of mask bitmaps newly allocated, as opposed to reused from the pool.
+         */
+        public long getMaskBytesAllocated() {
+            return maskBytesAllocated;
+        }
+
+        public int getMaskBytesInUse() {
+            return maskBytesInUse;
+        }
+
+        public int getMaskBytesPooled() {
+            return maskBytesPooled;
+        }
+
+        public long getPathRebuildCount() {
+            return pathRebuildCount;
+        }
+
+        /**
+         * Returns the frames shimmer views did not draw because they were paused off-screen.
+         */
+        public long getSkippedFrameCount() {
+            return skippedFrameCount;
+        }
+
+        /**
+         * Returns the draw duration histograms keyed by name, e.g. {@link #IMAGE_VIEW_DRAW}.
+         */
+        @NonNull
+        public Map<String, Histogram> getDrawHistograms() {
+            return drawHistograms;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+    private final HashMap<String, Histogram> drawHistograms = new HashMap<>();
+    private final Runnable reportRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isReportScheduled = false;
+            dispatchSnapshot();
+            scheduleReport();
+        }
+    };
+    private long reportIntervalMillis = DEFAULT_REPORT_INTERVAL_MILLIS;
+    private boolean isReportScheduled;
+    private long maskBytesAllocated;
+    private long pathRebuildCount;
+    private long skippedFrameCount;
+
+    private UIMetrics() {
+    }
+
+    @NonNull
+    public static UIMetrics getInstance() {
+        if (instance == null) {
+            instance = new UIMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns true when recording sites should report. Callers check this before measuring, so
+     * disabled metrics cost no clock reads.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (isEnabled == enabled) {
+            return;
+        }
+        isEnabled = enabled;
+        if (enabled) {
+            scheduleReport();
+        } else {
+            cancelReport();
+        }
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+            scheduleReport();
+        }
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            cancelReport();
+        }
+    }
+
+    public long getReportIntervalMillis() {
+        return reportIntervalMillis;
+    }
+
+    /**
+     * Sets how often listeners receive a snapshot while metrics are enabled.
+     */
+    public void setReportIntervalMillis(long intervalMillis) {
+        if (intervalMillis <= 0L) {
+            throw new IllegalArgumentException("intervalMillis must be positive");
+        }
+        reportIntervalMillis = intervalMillis;
+        cancelReport();
+        scheduleReport();
+    }
+
+    @NonNull
+    public Snapshot getSnapshot() {
+        HashMap<String, Histogram> histograms = new HashMap<>();
+        for (Map.Entry<String, Histogram> entry : drawHistograms.entrySet()) {
+            histograms.put(entry.getKey(), new Histogram(entry.getValue()));
+        }
+        UIMaskBitmapPool maskPool = UIMaskBitmapPool.getInstance();
+        return new Snapshot(SystemClock.uptimeMillis(), UIShimmerClock.getInstance().getCallbackCount(),
+                maskBytesAllocated, maskPool.getAcquiredBytes(), maskPool.getPooledBytes(),
+                pathRebuildCount, skippedFrameCount, Collections.unmodifiableMap(histograms));
+    }
+
+    /**
+     * Clears the counters and histograms. Gauges are unaffected.
+     */
+    public void reset() {
+        drawHistograms.clear();
+        maskBytesAllocated = 0L;
+        pathRebuildCount = 0L;
+        skippedFrameCount = 0L;
+    }
+
+    public void recordDrawDuration(@NonNull String name, long durationNanos) {
+        Histogram histogram = drawHistograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram();
+            drawHistograms.put(name, histogram);
+        }
+        histogram.record(durationNanos);
+    }
+
+    public void recordMaskAllocation(int bytes) {
+        maskBytesAllocated += bytes;
+    }
+
+    public void recordPathRebuild() {
+        pathRebuildCount++;
+    }
+
+    public void recordSkippedFrames(long frames) {
+        skippedFrameCount += frames;
+    }
+
+    private void dispatchSnapshot() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Snapshot snapshot = getSnapshot();
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onMetricsSnapshot(snapshot);
+        }
+    }
+
+    private void scheduleReport() {
+        if (isEnabled && !listeners.isEmpty() && !isReportScheduled) {
+            isReportScheduled = true;
+            mainHandler.postDelayed(reportRunnable, reportIntervalMillis);
+        }
+    }
+
+    private void cancelReport() {
+        if (isReportScheduled) {
+            isReportScheduled = false;
+            mainHandler.removeCallbacks(reportRunnable);
+        }
+    }
+}
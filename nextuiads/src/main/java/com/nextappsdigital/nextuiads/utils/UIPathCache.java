@@ -0,0 +1,141 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide cache of rounded rect paths. Views with the same size and resolved corner radii
+ * share one prebuilt {@link Path}; the least recently used paths are evicted once the cache is full.
+ * Cached paths are shared and must never be mutated.
+ */
+public final class UIPathCache {
+
+    /** Rough native size of a rounded rect path, used for {@link #getApproximateBytes()}. */
+    private static final int APPROXIMATE_PATH_BYTES = 256;
+    private static final int DEFAULT_MAX_SIZE = 128;
+
+    private static UIPathCache instance;
+
+    private final LinkedHashMap<Key, Path> paths = new LinkedHashMap<>(16, 0.75f, true);
+    private final Key lookupKey = new Key();
+    private final RectF pathRect = new RectF();
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private static final class Key {
+        private float width;
+        private float height;
+        private final float[] radii = new float[8];
+
+        void set(float width, float height, float[] radii) {
+            this.width = width;
+            this.height = height;
+            System.arraycopy(radii, 0, this.radii, 0, this.radii.length);
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.set(width, height, radii);
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Float.compare(width, key.width) == 0
+                    && Float.compare(height, key.height) == 0
+                    && Arrays.equals(radii, key.radii);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(width);
+            result = 31 * result + Float.floatToIntBits(height);
+            result = 31 * result + Arrays.hashCode(radii);
+            return result;
+        }
+    }
+
+    private UIPathCache() {
+    }
+
+    @NonNull
+    public static synchronized UIPathCache getInstance() {
+        if (instance == null) {
+            instance = new UIPathCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the shared rounded rect path for the given size and radii, building it on first use.
+     * Only builds are counted by {@link UIMetrics} as path rebuilds; cache hits are free.
+     *
+     * @param width the width of the rect
+     * @param height the height of the rect
+     * @param radii the eight corner radii, already resolved for the layout direction
+     */
+    @NonNull
+    public synchronized Path obtainRoundRect(float width, float height, @NonNull float[] radii) {
+        lookupKey.set(width, height, radii);
+        Path path = paths.get(lookupKey);
+        if (path == null) {
+            if (UIMetrics.isEnabled()) {
+                UIMetrics.getInstance().recordPathRebuild();
+            }
+            path = new Path();
+            pathRect.set(0.0f, 0.0f, width, height);
+            path.addRoundRect(pathRect, radii, Path.Direction.CW);
+            if (maxSize > 0) {
+                paths.put(lookupKey.copy(), path);
+                trimToSize(maxSize);
+            }
+        }
+        return path;
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+    }
+
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns an estimate of the native memory held by the cached paths.
+     */
+    public synchronized int getApproximateBytes() {
+        return paths.size() * APPROXIMATE_PATH_BYTES;
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.maxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    private void trimToSize(int size) {
+        while (paths.size() > size) {
+            Map.Entry<Key, Path> eldest = paths.entrySet().iterator().next();
+            paths.remove(eldest.getKey());
+        }
+    }
+}
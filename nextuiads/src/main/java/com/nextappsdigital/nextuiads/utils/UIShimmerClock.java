@@ -0,0 +1,160 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.PowerManager;
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import java.util.ArrayList;
+
+/**
+ * A single Choreographer-driven frame clock shared by every shimmer view in the process.
+ * Subscribers derive their position from the same frame time, so they stay in sync and the
+ * per-frame cost is one callback regardless of how many views are shimmering.
+ * <p>
+ * Once {@link #attachPowerSaveMonitor(Context)} has been called the clock stops ticking while
+ * the device is in power-save mode; subscribers keep their registration and resume in phase.
+ */
+@MainThread
+public final class UIShimmerClock implements Choreographer.FrameCallback {
+
+    /**
+     * Receives a callback for every frame while subscribed.
+     */
+    public interface Callback {
+        void onShimmerFrame(long frameTimeNanos);
+    }
+
+    private static UIShimmerClock instance;
+
+    private final ArrayList<Callback> callbacks = new ArrayList<>();
+    private Callback[] dispatchCallbacks = new Callback[8];
+    private boolean isFrameScheduled;
+    private boolean isPowerSaveMode;
+    private PowerManager powerManager;
+
+    private UIShimmerClock() {
+    }
+
+    @NonNull
+    public static UIShimmerClock getInstance() {
+        if (instance == null) {
+            instance = new UIShimmerClock();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the phase in the range [0, 1) of a cycle with the given duration at the given frame time.
+     *
+     * @param frameTimeNanos the frame time reported by {@link Callback#onShimmerFrame(long)}
+     * @param durationMillis the duration of one full cycle in milliseconds
+     */
+    public static float getPhase(long frameTimeNanos, int durationMillis) {
+        if (durationMillis <= 0) {
+            return 0.0f;
+        }
+        long frameTimeMillis = frameTimeNanos / 1000000L;
+        return (float) (frameTimeMillis % durationMillis) / (float) durationMillis;
+    }
+
+    /**
+     * Starts following the system power-save mode. Only the first call registers a receiver.
+     */
+    public void attachPowerSaveMonitor(@NonNull Context context) {
+        if (powerManager != null) {
+            return;
+        }
+        Context applicationContext = context.getApplicationContext();
+        powerManager = (PowerManager) applicationContext.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) {
+            return;
+        }
+        isPowerSaveMode = powerManager.isPowerSaveMode();
+        ContextCompat.registerReceiver(applicationContext, new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                setPowerSaveMode(powerManager.isPowerSaveMode());
+            }
+        }, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED), ContextCompat.RECEIVER_NOT_EXPORTED);
+    }
+
+    public boolean isPowerSaveMode() {
+        return isPowerSaveMode;
+    }
+
+    public void addCallback(@NonNull Callback callback) {
+        if (callbacks.contains(callback)) {
+            return;
+        }
+        callbacks.add(callback);
+        scheduleFrame();
+    }
+
+    public void removeCallback(@NonNull Callback callback) {
+        callbacks.remove(callback);
+        if (callbacks.isEmpty()) {
+            cancelFrame();
+        }
+    }
+
+    public int getCallbackCount() {
+        return callbacks.size();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameScheduled = false;
+        int count = callbacks.size();
+        if (count == 0) {
+            return;
+        }
+        if (dispatchCallbacks.length < count) {
+            dispatchCallbacks = new Callback[count * 2];
+        }
+        // Snapshot so callbacks may unsubscribe while being dispatched.
+        Callback[] snapshot = dispatchCallbacks;
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = callbacks.get(i);
+        }
+        for (int i = 0; i < count; i++) {
+            snapshot[i].onShimmerFrame(frameTimeNanos);
+            snapshot[i] = null;
+        }
+        if (!callbacks.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private void setPowerSaveMode(boolean powerSaveMode) {
+        if (isPowerSaveMode == powerSaveMode) {
+            return;
+        }
+        isPowerSaveMode = powerSaveMode;
+        if (powerSaveMode) {
+            cancelFrame();
+        } else if (!callbacks.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!isFrameScheduled && !isPowerSaveMode) {
+            isFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void cancelFrame() {
+        if (isFrameScheduled) {
+            isFrameScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.graphics.LinearGradient;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide cache of shimmer gradient shaders. Identically configured shimmer views share one
+ * {@link LinearGradient}; the least recently used shaders are evicted once the cache is full.
+ * Cached shaders are shared and must not be mutated.
+ */
+public final class UIShimmerShaderCache {
+
+    private static final int DEFAULT_MAX_SIZE = 32;
+
+    private static UIShimmerShaderCache instance;
+
+    private final LinkedHashMap<Key, LinearGradient> shaders = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Identifies a shimmer gradient by everything that affects its geometry and colors.
+     */
+    public static final class Key {
+        private final int color;
+        private final int angle;
+        private final float maskWidth;
+        private final float centerColorWidth;
+        private final int height;
+
+        /**
+         * @param color the shimmer color
+         * @param angle the shimmer angle in degrees
+         * @param maskWidth the gradient length in pixels
+         * @param centerColorWidth the fraction of the gradient filled with the solid color
+         * @param height the height of the shimmer view in pixels
+         */
+        public Key(@ColorInt int color, int angle, float maskWidth, float centerColorWidth, int height) {
+            this.color = color;
+            this.angle = angle;
+            this.maskWidth = maskWidth;
+            this.centerColorWidth = centerColorWidth;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return color == key.color
+                    && angle == key.angle
+                    && Float.compare(maskWidth, key.maskWidth) == 0
+                    && Float.compare(centerColorWidth, key.centerColorWidth) == 0
+                    && height == key.height;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = color;
+            result = 31 * result + angle;
+            result = 31 * result + Float.floatToIntBits(maskWidth);
+            result = 31 * result + Float.floatToIntBits(centerColorWidth);
+            result = 31 * result + height;
+            return result;
+        }
+    }
+
+    private UIShimmerShaderCache() {
+    }
+
+    @NonNull
+    public static synchronized UIShimmerShaderCache getInstance() {
+        if (instance == null) {
+            instance = new UIShimmerShaderCache();
+        }
+        return instance;
+    }
+
+    @Nullable
+    public synchronized LinearGradient get(@NonNull Key key) {
+        return shaders.get(key);
+    }
+
+    public synchronized void put(@NonNull Key key, @NonNull LinearGradient shader) {
+        shaders.put(key, shader);
+        trimToSize(maxSize);
+    }
+
+    public synchronized void clear() {
+        shaders.clear();
+    }
+
+    public synchronized int size() {
+        return shaders.size();
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.maxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    private void trimToSize(int size) {
+        while (shaders.size() > size) {
+            Map.Entry<Key, LinearGradient> eldest = shaders.entrySet().iterator().next();
+            shaders.remove(eldest.getKey());
+        }
+    }
+}
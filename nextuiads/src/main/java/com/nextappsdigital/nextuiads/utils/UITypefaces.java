@@ -0,0 +1,171 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.res.ResourcesCompat;
+
+import com.nextappsdigital.nextuiads.R;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The bundled Lato typefaces, parsed once on a background thread and shared by every widget.
+ * <p>
+ * Call {@link #preload(Context)} from {@code Application.onCreate()} so the fonts are ready
+ * before the first layout. Until the fonts are ready {@link #get(int)} returns null; widgets keep
+ * the default typeface and switch once {@link Callback} fires.
+ * <p>
+ * Loading goes through {@link ResourcesCompat#getFont(Context, int)}. Views that reference
+ * {@code @font/lato*} in XML share that cache only when inflated through AppCompat's view
+ * inflater, e.g. the LayoutInflater of an AppCompatActivity, which resolves {@code fontFamily}
+ * through ResourcesCompat. Other inflaters parse the fonts again through the framework's cache.
+ */
+@MainThread
+public final class UITypefaces {
+
+    public static final int LATO = 0;
+    public static final int LATO_MEDIUM = 1;
+    public static final int LATO_BOLD = 2;
+    public static final int LATO_BLACK_ITALIC = 3;
+
+    private static final int[] FONT_RESOURCES = {
+            R.font.lato, R.font.lato_medium, R.font.lato_bold, R.font.lato_black_italic
+    };
+
+    private static UITypefaces instance;
+
+    /**
+     * Called on the main thread once all typefaces are loaded.
+     */
+    public interface Callback {
+        void onTypefacesReady(@NonNull UITypefaces typefaces);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Typeface[] typefaces = new Typeface[FONT_RESOURCES.length];
+    private final ArrayList<Callback> callbacks = new ArrayList<>();
+    private final long preloadStartMillis;
+    private long readyMillis;
+    private boolean isReady;
+
+    private UITypefaces(Context context) {
+        preloadStartMillis = SystemClock.elapsedRealtime();
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "UITypefaces");
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < FONT_RESOURCES.length; i++) {
+                    try {
+                        typefaces[i] = ResourcesCompat.getFont(context, FONT_RESOURCES[i]);
+                    } catch (Resources.NotFoundException e) {
+                        // Left null: callers fall back to their default typeface.
+                    }
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onTypefacesLoaded();
+                    }
+                });
+            }
+        });
+        // The load runs once; the thread exits when it completes.
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the registry, starting the background load on first use.
+     */
+    @NonNull
+    public static UITypefaces getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new UITypefaces(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Starts loading the typefaces in the background if that has not happened yet.
+     */
+    public static void preload(@NonNull Context context) {
+        getInstance(context);
+    }
+
+    /**
+     * Returns the loaded typeface, e.g. {@link #LATO_BOLD}, or null while loading.
+     */
+    @Nullable
+    public Typeface get(int font) {
+        if (font < 0 || font >= FONT_RESOURCES.length) {
+            throw new IllegalArgumentException("Unknown font " + font);
+        }
+        return isReady ? typefaces[font] : null;
+    }
+
+    public boolean isReady() {
+        return isReady;
+    }
+
+    /**
+     * Calls the callback once the typefaces are ready, immediately if they already are.
+     */
+    public void whenReady(@NonNull Callback callback) {
+        if (isReady) {
+            callback.onTypefacesReady(this);
+        } else if (!callbacks.contains(callback)) {
+            callbacks.add(callback);
+        }
+    }
+
+    public void removeCallback(@NonNull Callback callback) {
+        callbacks.remove(callback);
+    }
+
+    /**
+     * Returns the milliseconds from process start until the typefaces were ready, or -1 while
+     * loading. This is the delay the first screen can observe.
+     */
+    public long getTimeToReadyMillis() {
+        return isReady ? readyMillis - Process.getStartElapsedRealtime() : -1L;
+    }
+
+    /**
+     * Returns the milliseconds the background load took, or -1 while loading.
+     */
+    public long getLoadDurationMillis() {
+        return isReady ? readyMillis - preloadStartMillis : -1L;
+    }
+
+    private void onTypefacesLoaded() {
+        readyMillis = SystemClock.elapsedRealtime();
+        isReady = true;
+        ArrayList<Callback> readyCallbacks = new ArrayList<>(callbacks);
+        callbacks.clear();
+        for (Callback callback : readyCallbacks) {
+            callback.onTypefacesReady(this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.net.Uri;
+import android.os.Looper;
+
+import com.nextappsdigital.nextuiads.R;
+import com.nextappsdigital.nextuiads.image.UIImageLoader;
+import com.nextappsdigital.nextuiads.image.UIImageSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that prefetched ads have their images decoded at the sizes the style's template shows
+ * them at.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class UIAdPrefetcherTest {
+
+    private static final String PLACEMENT = "feed";
+    private static final int IMAGE_SIZE = 512;
+    private static final long TIMEOUT_MILLIS = 10000L;
+    private static final long SETTLE_MILLIS = 500L;
+
+    @Test
+    public void prefetchLarge_warmsUpIconAndMedia() throws IOException {
+        Context context = RuntimeEnvironment.getApplication();
+        Uri iconUri = createImageUri(context, "large-icon");
+        Uri mediaUri = createImageUri(context, "large-media");
+        UIAdPrefetcher prefetcher = createPrefetcher(context, iconUri, mediaUri);
+
+        prefetcher.prefetch(PLACEMENT, UINativeAdView.STYLE_LARGE);
+
+        Resources resources = context.getResources();
+        int iconSize = resources.getDimensionPixelSize(R.dimen.ui_native_ad_icon_size);
+        int mediaWidth = resources.getDisplayMetrics().widthPixels - resources.getDimensionPixelSize(R.dimen.ui_spacing) * 2;
+        int mediaHeight = resources.getDimensionPixelSize(R.dimen.ui_native_ad_media_height);
+        UIImageLoader imageLoader = UIImageLoader.getInstance(context);
+        UIImageSource icon = UIImageSource.fromUri(context, iconUri);
+        UIImageSource media = UIImageSource.fromUri(context, mediaUri);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while ((imageLoader.getCached(icon, iconSize, iconSize) == null
+                || imageLoader.getCached(media, mediaWidth, mediaHeight) == null)
+                && System.currentTimeMillis() < deadline) {
+            idleMainLooper();
+        }
+        assertNotNull(imageLoader.getCached(icon, iconSize, iconSize));
+        assertNotNull(imageLoader.getCached(media, mediaWidth, mediaHeight));
+        assertNotNull(prefetcher.poll(PLACEMENT, UINativeAdView.STYLE_LARGE));
+    }
+
+    @Test
+    public void prefetchMedium_warmsUpIconOnly() throws IOException {
+        Context context = RuntimeEnvironment.getApplication();
+        Uri iconUri = createImageUri(context, "medium-icon");
+        Uri mediaUri = createImageUri(context, "medium-media");
+        UIAdPrefetcher prefetcher = createPrefetcher(context, iconUri, mediaUri);
+
+        prefetcher.prefetch(PLACEMENT, UINativeAdView.STYLE_MEDIUM);
+
+        Resources resources = context.getResources();
+        int iconSize = resources.getDimensionPixelSize(R.dimen.ui_native_ad_icon_size);
+        int mediaWidth = resources.getDisplayMetrics().widthPixels - resources.getDimensionPixelSize(R.dimen.ui_spacing) * 2;
+        int mediaHeight = resources.getDimensionPixelSize(R.dimen.ui_native_ad_media_height);
+        UIImageLoader imageLoader = UIImageLoader.getInstance(context);
+        UIImageSource icon = UIImageSource.fromUri(context, iconUri);
+        UIImageSource media = UIImageSource.fromUri(context, mediaUri);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (imageLoader.getCached(icon, iconSize, iconSize) == null && System.currentTimeMillis() < deadline) {
+            idleMainLooper();
+        }
+        assertNotNull(imageLoader.getCached(icon, iconSize, iconSize));
+        // The medium template has no media view, so nothing should decode it.
+        long settle = System.currentTimeMillis() + SETTLE_MILLIS;
+        while (System.currentTimeMillis() < settle) {
+            idleMainLooper();
+        }
+        assertNull(imageLoader.getCached(media, mediaWidth, mediaHeight));
+    }
+
+    private static UIAdPrefetcher createPrefetcher(Context context, Uri iconUri, Uri mediaUri) {
+        UIFakeAdSource adSource = new UIFakeAdSource();
+        adSource.setImageUris(context, iconUri, mediaUri);
+        return new UIAdPrefetcher(context, adSource);
+    }
+
+    private static Uri createImageUri(Context context, String name) throws IOException {
+        Bitmap bitmap = Bitmap.createBitmap(IMAGE_SIZE, IMAGE_SIZE, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.BLUE);
+        // Unique per run, as the image loader is a process-wide singleton keyed by URI.
+        File file = new File(context.getCacheDir(), name + '-' + System.nanoTime() + ".png");
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        }
+        return Uri.fromFile(file);
+    }
+
+    private static void idleMainLooper() {
+        shadowOf(Looper.getMainLooper()).idle();
+        Thread.yield();
+    }
+}
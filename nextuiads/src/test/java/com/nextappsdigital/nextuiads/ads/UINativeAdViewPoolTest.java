@@ -0,0 +1,53 @@
+package com.nextappsdigital.nextuiads.ads;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.nextappsdigital.nextuiads.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that the pool inflates on its worker while the main thread keeps inflating through the
+ * context's shared LayoutInflater.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class UINativeAdViewPoolTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int MAIN_THREAD_INFLATIONS = 20;
+    private static final long TIMEOUT_MILLIS = 10000L;
+
+    @Test
+    public void backgroundInflation_runsAlongsideMainThreadInflation() {
+        Context context = RuntimeEnvironment.getApplication();
+        int layoutRes = UINativeAdView.getLayoutForStyle(UINativeAdView.STYLE_LARGE);
+        UINativeAdViewPool pool = new UINativeAdViewPool(context);
+        pool.setPoolSize(layoutRes, POOL_SIZE);
+
+        LayoutInflater inflater = LayoutInflater.from(context);
+        for (int i = 0; i < MAIN_THREAD_INFLATIONS; i++) {
+            View view = inflater.inflate(layoutRes, null, false);
+            assertNotNull(view.findViewById(R.id.ui_native_ad_media));
+        }
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (pool.getAvailableCount(layoutRes) < POOL_SIZE && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+        assertEquals(POOL_SIZE, pool.getAvailableCount(layoutRes));
+        UINativeAdTemplate template = pool.acquire(layoutRes);
+        assertNotNull(template);
+        assertEquals(layoutRes, template.getLayoutRes());
+    }
+}
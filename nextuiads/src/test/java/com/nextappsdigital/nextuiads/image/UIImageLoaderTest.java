@@ -0,0 +1,115 @@
+package com.nextappsdigital.nextuiads.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that targets can cancel requests while a shared load is being delivered.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class UIImageLoaderTest {
+
+    private static final int TARGET_SIZE = 32;
+    private static final long TIMEOUT_MILLIS = 10000L;
+
+    @Test
+    public void cancelOtherRequestFromCallback_skipsIt() {
+        Context context = RuntimeEnvironment.getApplication();
+        UIImageLoader loader = UIImageLoader.getInstance(context);
+        UIImageSource source = createSource("cancel-other");
+
+        CountingTarget second = new CountingTarget();
+        final UIImageLoader.Request[] secondRequest = new UIImageLoader.Request[1];
+        CountingTarget first = new CountingTarget() {
+            @Override
+            public void onImageLoaded(@NonNull Bitmap bitmap) {
+                super.onImageLoaded(bitmap);
+                // E.g. a recycled view rebinding while the shared load is delivered.
+                secondRequest[0].cancel();
+            }
+        };
+        assertNotNull(loader.load(source, TARGET_SIZE, TARGET_SIZE, first));
+        secondRequest[0] = loader.load(source, TARGET_SIZE, TARGET_SIZE, second);
+        assertNotNull(secondRequest[0]);
+
+        awaitDelivery(first);
+        assertEquals(1, first.loadedCount);
+        assertEquals(0, second.loadedCount);
+        assertEquals(0, first.failedCount + second.failedCount);
+    }
+
+    @Test
+    public void cancelOwnRequestFromCallback_deliversTheOthers() {
+        Context context = RuntimeEnvironment.getApplication();
+        UIImageLoader loader = UIImageLoader.getInstance(context);
+        UIImageSource source = createSource("cancel-own");
+
+        final UIImageLoader.Request[] firstRequest = new UIImageLoader.Request[1];
+        CountingTarget first = new CountingTarget() {
+            @Override
+            public void onImageLoaded(@NonNull Bitmap bitmap) {
+                super.onImageLoaded(bitmap);
+                firstRequest[0].cancel();
+            }
+        };
+        CountingTarget second = new CountingTarget();
+        firstRequest[0] = loader.load(source, TARGET_SIZE, TARGET_SIZE, first);
+        loader.load(source, TARGET_SIZE, TARGET_SIZE, second);
+
+        awaitDelivery(second);
+        assertEquals(1, first.loadedCount);
+        assertEquals(1, second.loadedCount);
+        // The decoded bitmap stays cached for later binds.
+        assertNotNull(loader.getCached(source, TARGET_SIZE, TARGET_SIZE));
+        assertNull(loader.load(source, TARGET_SIZE, TARGET_SIZE, new CountingTarget()));
+    }
+
+    private static UIImageSource createSource(String id) {
+        Bitmap bitmap = Bitmap.createBitmap(TARGET_SIZE * 2, TARGET_SIZE * 2, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.RED);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        return UIImageSource.fromBytes(id + '-' + System.nanoTime(), outputStream.toByteArray());
+    }
+
+    private static void awaitDelivery(CountingTarget target) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (target.loadedCount + target.failedCount == 0 && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+    }
+
+    private static class CountingTarget implements UIImageLoader.Target {
+        int loadedCount;
+        int failedCount;
+
+        @Override
+        public void onImageLoaded(@NonNull Bitmap bitmap) {
+            loadedCount++;
+        }
+
+        @Override
+        public void onImageLoadFailed(@NonNull Exception error) {
+            failedCount++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nextappsdigital.nextuiads.ui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies that a steady-state shimmer frame (the clock update plus the draw) allocates nothing.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class UIShimmerLayoutAllocationTest {
+
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 240;
+    private static final int WARM_UP_FRAMES = 50;
+    private static final int MEASURED_FRAMES = 300;
+    private static final long FRAME_INTERVAL_NANOS = 16666667L;
+
+    @Test
+    public void steadyStateFrame_allocatesNothing() {
+        Context context = RuntimeEnvironment.getApplication();
+        UIShimmerLayout layout = new UIShimmerLayout(context);
+        layout.setShimmerColor(Color.WHITE);
+        layout.setShimmerAnimationDuration(1500);
+        layout.setMaskWidth(0.5f);
+        layout.setGradientCenterColorWidth(0.1f);
+        layout.setShimmerAngle(20);
+
+        View child = new View(context);
+        child.setBackgroundColor(Color.GRAY);
+        layout.addView(child, new FrameLayout.LayoutParams(WIDTH / 2, HEIGHT / 3));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, WIDTH, HEIGHT);
+        layout.startShimmerAnimation();
+
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        long frameTimeNanos = 0L;
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            layout.dispatchShimmerFrame(frameTimeNanos);
+            layout.draw(canvas);
+            frameTimeNanos += FRAME_INTERVAL_NANOS;
+        }
+
+        long measurementOverhead = measureAllocatedBytesOverhead();
+        long before = currentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            layout.dispatchShimmerFrame(frameTimeNanos);
+            layout.draw(canvas);
+            frameTimeNanos += FRAME_INTERVAL_NANOS;
+        }
+        long allocated = currentThreadAllocatedBytes() - before - measurementOverhead;
+
+        assertEquals("Allocated bytes over " + MEASURED_FRAMES + " shimmer frames", 0L, Math.max(0L, allocated));
+    }
+
+    private static long measureAllocatedBytesOverhead() {
+        // The first calls may allocate while the bean initializes; only the steady cost is subtracted.
+        currentThreadAllocatedBytes();
+        currentThreadAllocatedBytes();
+        long first = currentThreadAllocatedBytes();
+        return currentThreadAllocatedBytes() - first;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,98 @@
+package com.nextappsdigital.nextuiads.utils;
+
+import android.content.Context;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks UIDimens against the {@code size_*} and {@code text_*} dimens tables it replaced, which
+ * were kept in {@code values}, {@code values-sw320dp}, {@code values-sw480dp}, {@code values-sw600dp},
+ * {@code values-sw720dp} and {@code values-sw800dp}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class UIDimensTest {
+
+    // Resolved at xhdpi, so one table dp is two pixels.
+    private static final float DENSITY = 2.0f;
+
+    private static final String[] BUCKETS = {"sw300dp", "sw320dp", "sw480dp", "sw600dp", "sw720dp", "sw800dp"};
+    private static final int[] SMALLEST_WIDTHS = {300, 320, 480, 600, 720, 800};
+
+    // size_1, size_7, size_48 and size_600 in dp, per bucket, as listed in the removed tables.
+    private static final int[] SIZES = {1, 7, 48, 600};
+    private static final float[][] TABLE_SIZES = {
+            {1.00f, 7.00f, 48.00f, 600.00f},
+            {1.00f, 7.00f, 48.00f, 600.00f},
+            {1.50f, 10.50f, 72.00f, 900.00f},
+            {2.00f, 14.00f, 96.00f, 1200.00f},
+            {3.00f, 21.00f, 144.00f, 1800.00f},
+            {4.00f, 28.00f, 192.00f, 2400.00f},
+    };
+
+    // text_1, text_13 and text_100 in sp, per bucket, as listed in the removed tables.
+    private static final int[] TEXT_SIZES = {1, 13, 100};
+    private static final float[][] TABLE_TEXT_SIZES = {
+            {1.00f, 13.00f, 100.00f},
+            {1.00f, 13.00f, 100.00f},
+            {1.50f, 19.50f, 150.00f},
+            {2.00f, 26.00f, 200.00f},
+            {3.00f, 39.00f, 300.00f},
+            {4.00f, 52.00f, 400.00f},
+    };
+
+    @Test
+    public void getScale_matchesTableBuckets() {
+        for (int i = 0; i < SMALLEST_WIDTHS.length; i++) {
+            int smallestWidth = SMALLEST_WIDTHS[i];
+            assertEquals("sw" + smallestWidth, TABLE_SIZES[i][0], UIDimens.getScale(smallestWidth), 0.0f);
+        }
+        assertEquals(1.0f, UIDimens.getScale(0), 0.0f);
+        assertEquals(1.0f, UIDimens.getScale(479), 0.0f);
+        assertEquals(1.5f, UIDimens.getScale(599), 0.0f);
+        assertEquals(2.0f, UIDimens.getScale(719), 0.0f);
+        assertEquals(3.0f, UIDimens.getScale(799), 0.0f);
+        assertEquals(4.0f, UIDimens.getScale(1280), 0.0f);
+    }
+
+    @Test
+    public void getSize_matchesTableDimens() {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            Context context = createContext(BUCKETS[i]);
+            for (int j = 0; j < SIZES.length; j++) {
+                // Rounded like getDimensionPixelSize() on the table entry.
+                int expected = (int) (TABLE_SIZES[i][j] * DENSITY + 0.5f);
+                assertEquals(BUCKETS[i] + " size_" + SIZES[j], expected, UIDimens.getSize(context, SIZES[j]));
+                assertEquals(BUCKETS[i] + " size_" + SIZES[j], TABLE_SIZES[i][j] * DENSITY,
+                        UIDimens.getSizeExact(context, SIZES[j]), 0.001f);
+            }
+            assertEquals(0, UIDimens.getSize(context, 0));
+        }
+    }
+
+    @Test
+    public void getTextSize_matchesTableDimens() {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            Context context = createContext(BUCKETS[i]);
+            for (int j = 0; j < TEXT_SIZES.length; j++) {
+                assertEquals(BUCKETS[i] + " text_" + TEXT_SIZES[j], TABLE_TEXT_SIZES[i][j] * DENSITY,
+                        UIDimens.getTextSize(context, TEXT_SIZES[j]), 0.001f);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getSize_rejectsNegativeSizes() {
+        UIDimens.getSize(RuntimeEnvironment.getApplication(), -1);
+    }
+
+    private static Context createContext(String bucket) {
+        RuntimeEnvironment.setQualifiers(bucket + "-xhdpi");
+        RuntimeEnvironment.setFontScale(1.0f);
+        return RuntimeEnvironment.getApplication();
+    }
+}